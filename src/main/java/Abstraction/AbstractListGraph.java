@@ -2,8 +2,12 @@ package Abstraction;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
+import Collection.IntIntLinkedMap;
 import Nodes.AbstractNode;
+import Nodes.LabelMap;
 
 public abstract class AbstractListGraph<A extends AbstractNode> implements IGraph {
 
@@ -14,6 +18,7 @@ public abstract class AbstractListGraph<A extends AbstractNode> implements IGrap
 	protected List<A> nodes;
     protected int order;
     protected int m;
+    protected boolean compactAdjacency;	// adjacency maps of the nodes keyed by label, see Nodes.LabelMap
 
     //--------------------------------------------------
     // 				Constructors
@@ -49,6 +54,13 @@ public abstract class AbstractListGraph<A extends AbstractNode> implements IGrap
         return this.order;
     }
 
+    /**
+     * Returns true if the nodes store their adjacency by label in primitive arrays instead of LinkedHashMaps
+     */
+    public boolean isCompactAdjacency() {
+        return this.compactAdjacency;
+    }
+
     /**
      * Method to generify node creation
      * @param label of a node
@@ -56,4 +68,36 @@ public abstract class AbstractListGraph<A extends AbstractNode> implements IGrap
      */
     public abstract A makeNode(int label);
 
+    /**
+     * Calls action on the label of each node of an adjacency map, a LabelMap being read without resolving its nodes
+     */
+    protected static void forEachLabel(Map<? extends AbstractNode, Integer> map, IntConsumer action) {
+        if (map instanceof LabelMap) {
+            IntIntLinkedMap labels = ((LabelMap<?>) map).getIntMap();
+            for (int p = labels.next(0); p >= 0; p = labels.next(p + 1)) {
+                action.accept(labels.keyAt(p));
+            }
+            return;
+        }
+        for (AbstractNode n : map.keySet()) {
+            action.accept(n.getLabel());
+        }
+    }
+
+    /**
+     * Calls action on the label and the cost of each node of an adjacency map, the cost being 1 if valued is false
+     */
+    protected static void forEachEntry(Map<? extends AbstractNode, Integer> map, boolean valued, WeightedArcConsumer action) {
+        if (map instanceof LabelMap) {
+            IntIntLinkedMap labels = ((LabelMap<?>) map).getIntMap();
+            for (int p = labels.next(0); p >= 0; p = labels.next(p + 1)) {
+                action.accept(labels.keyAt(p), valued ? labels.valueAt(p) : 1);
+            }
+            return;
+        }
+        for (Map.Entry<? extends AbstractNode, Integer> e : map.entrySet()) {
+            action.accept(e.getKey().getLabel(), valued ? e.getValue() : 1);
+        }
+    }
+
 }
@@ -1,5 +1,6 @@
 package Abstraction;
 
+import Collection.BitMatrix;
 import Nodes.AbstractNode;
 
 public abstract class AbstractMatrixGraph<A extends AbstractNode> implements IGraph {
@@ -11,6 +12,7 @@ public abstract class AbstractMatrixGraph<A extends AbstractNode> implements IGr
     protected int order;		// Number of vertices
     protected int m = 0;		// Number of edges/arcs
     protected int[][] matrix;	// The adjacency matrix
+    protected BitMatrix bits;	// The bit-packed adjacency matrix, replaces matrix in packed mode
 
     //--------------------------------------------------
     // 				Constructors
@@ -27,10 +29,17 @@ public abstract class AbstractMatrixGraph<A extends AbstractNode> implements IGr
     // ------------------------------------------
 
     /**
-     * Returns the list of nodes in the graph
+     * Returns the adjacency matrix of the graph, expanded from the bits in packed mode
      */
     public int[][] getMatrix() {
-        return this.matrix;
+        return this.bits != null ? this.bits.toMatrix() : this.matrix;
+    }
+
+    /**
+     * Returns true if the graph is simple and its matrix is stored with one bit per cell
+     */
+    public boolean isPacked() {
+        return this.bits != null;
     }
 
     /**
@@ -1,5 +1,7 @@
 package Abstraction;
 
+import java.util.function.IntConsumer;
+
 import Nodes.AbstractNode;
 import Nodes.DirectedNode;
 
@@ -29,4 +31,76 @@ public interface IDirectedGraph extends IGraph {
 	 * @return a new graph implementing IDirectedGraph interface which is the inverse graph of this
  	 */
 	IDirectedGraph computeInverse();
+
+	/**
+	 * @return a view of this graph with every arc reversed, costs included, which copies nothing and follows
+	 * the updates of this graph, see TransposedDirectedGraph
+	 */
+	default IDirectedGraph transposedView() {
+		return new TransposedDirectedGraph(this);
+	}
+
+	// The accessors by label below read the graph without any node object, labels being in [0, getNbNodes())
+
+	/**
+	 * @return true if arc (from,to) exists in the graph
+	 */
+	boolean isArc(int from, int to);
+
+	/**
+	 * @return the number of arcs leaving x, multiple arcs counted
+	 */
+	int getOutDegree(int x);
+
+	/**
+	 * @return the number of arcs entering x, multiple arcs counted
+	 */
+	int getInDegree(int x);
+
+	/**
+	 * Calls action on the head of each arc leaving x, once per arc
+	 */
+	void forEachSuccessor(int x, IntConsumer action);
+
+	/**
+	 * Calls action on the tail of each arc entering x, once per arc
+	 */
+	void forEachPredecessor(int x, IntConsumer action);
+
+	/**
+	 * Calls action on the head and the cost of each arc leaving x, the cost being 1 if the graph is not valued
+	 */
+	void forEachOutArc(int x, WeightedArcConsumer action);
+
+	/**
+	 * Calls action on the tail and the cost of each arc entering x, the cost being 1 if the graph is not valued
+	 */
+	void forEachInArc(int x, WeightedArcConsumer action);
+
+	/**
+	 * @return true if the arcs carry a cost
+	 */
+	default boolean isValued() {
+		return false;
+	}
+
+	/**
+	 * @return the heads of the arcs leaving x, in the order of forEachSuccessor
+	 */
+	default int[] getSuccessors(int x) {
+		int[] res = new int[this.getOutDegree(x)];
+		int[] k = {0};
+		this.forEachSuccessor(x, s -> res[k[0]++] = s);
+		return res;
+	}
+
+	/**
+	 * @return the tails of the arcs entering x, in the order of forEachPredecessor
+	 */
+	default int[] getPredecessors(int x) {
+		int[] res = new int[this.getInDegree(x)];
+		int[] k = {0};
+		this.forEachPredecessor(x, p -> res[k[0]++] = p);
+		return res;
+	}
 }
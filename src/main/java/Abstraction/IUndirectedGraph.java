@@ -1,5 +1,7 @@
 package Abstraction;
 
+import java.util.function.IntConsumer;
+
 import Nodes.AbstractNode;
 import Nodes.UndirectedNode;
 
@@ -25,4 +27,42 @@ public interface IUndirectedGraph extends IGraph {
      */
 	void addEdge(UndirectedNode x, UndirectedNode y);
 
+	// The accessors by label below read the graph without any node object, labels being in [0, getNbNodes())
+
+	/**
+	 * @return true if there is an edge between x and y
+	 */
+	boolean isEdge(int x, int y);
+
+	/**
+	 * @return the number of edges incident to x, multiple edges counted
+	 */
+	int getDegree(int x);
+
+	/**
+	 * Calls action on the other end of each edge incident to x, once per edge
+	 */
+	void forEachNeighbour(int x, IntConsumer action);
+
+	/**
+	 * Calls action on the other end and the cost of each edge incident to x, the cost being 1 if the graph is not valued
+	 */
+	void forEachEdge(int x, WeightedArcConsumer action);
+
+	/**
+	 * @return true if the edges carry a cost
+	 */
+	default boolean isValued() {
+		return false;
+	}
+
+	/**
+	 * @return the other ends of the edges incident to x, in the order of forEachNeighbour
+	 */
+	default int[] getNeighbours(int x) {
+		int[] res = new int[this.getDegree(x)];
+		int[] k = {0};
+		this.forEachNeighbour(x, y -> res[k[0]++] = y);
+		return res;
+	}
 }
@@ -0,0 +1,167 @@
+package Abstraction;
+
+import java.util.function.IntConsumer;
+
+import Nodes.DirectedNode;
+
+/**
+ * A view of a directed graph with every arc reversed: the successors of a node are its predecessors in the
+ * underlying graph and the reverse, with the same costs. Nothing is copied, the view follows the updates of
+ * the graph, and its own updates are applied to the graph reversed. See IDirectedGraph.transposedView().
+ */
+public class TransposedDirectedGraph implements IDirectedGraph {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final IDirectedGraph graph;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    public TransposedDirectedGraph(IDirectedGraph graph) {
+        this.graph = graph;
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    /**
+     * @return the graph seen through this view
+     */
+    public IDirectedGraph getGraph() {
+        return graph;
+    }
+
+    @Override
+    public int getNbNodes() {
+        return graph.getNbNodes();
+    }
+
+    @Override
+    public int getNbArcs() {
+        return graph.getNbArcs();
+    }
+
+    @Override
+    public boolean isValued() {
+        return graph.isValued();
+    }
+
+    @Override
+    public boolean isArc(DirectedNode from, DirectedNode to) {
+        return graph.isArc(to, from);
+    }
+
+    @Override
+    public boolean isArc(int from, int to) {
+        return graph.isArc(to, from);
+    }
+
+    @Override
+    public int getOutDegree(int x) {
+        return graph.getInDegree(x);
+    }
+
+    @Override
+    public int getInDegree(int x) {
+        return graph.getOutDegree(x);
+    }
+
+    @Override
+    public int[] getSuccessors(int x) {
+        return graph.getPredecessors(x);
+    }
+
+    @Override
+    public int[] getPredecessors(int x) {
+        return graph.getSuccessors(x);
+    }
+
+    @Override
+    public void forEachSuccessor(int x, IntConsumer action) {
+        graph.forEachPredecessor(x, action);
+    }
+
+    @Override
+    public void forEachPredecessor(int x, IntConsumer action) {
+        graph.forEachSuccessor(x, action);
+    }
+
+    @Override
+    public void forEachOutArc(int x, WeightedArcConsumer action) {
+        graph.forEachInArc(x, action);
+    }
+
+    @Override
+    public void forEachInArc(int x, WeightedArcConsumer action) {
+        graph.forEachOutArc(x, action);
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * Removes the arc (to,from) of the underlying graph
+     */
+    @Override
+    public void removeArc(DirectedNode from, DirectedNode to) {
+        graph.removeArc(to, from);
+    }
+
+    /**
+     * Adds the arc (to,from) to the underlying graph
+     */
+    @Override
+    public void addArc(DirectedNode from, DirectedNode to) {
+        graph.addArc(to, from);
+    }
+
+    /**
+     * @return the transpose of the adjacency matrix of the underlying graph, in a new matrix since some
+     * implementations return their own
+     */
+    @Override
+    public int[][] toAdjacencyMatrix() {
+        int[][] matrix = graph.toAdjacencyMatrix();
+        int[][] transposed = new int[matrix.length][matrix.length];
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix.length; j++) {
+                transposed[j][i] = matrix[i][j];
+            }
+        }
+        return transposed;
+    }
+
+    /**
+     * @return a copy of the underlying graph: the inverse of its inverse, seen transposed
+     */
+    @Override
+    public IDirectedGraph computeInverse() {
+        return graph.computeInverse().transposedView();
+    }
+
+    /**
+     * @return the underlying graph
+     */
+    @Override
+    public IDirectedGraph transposedView() {
+        return graph;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < getNbNodes(); i++) {
+            s.append("successors of node-").append(i).append(" : ");
+            graph.forEachPredecessor(i, p -> s.append("node-").append(p).append(" "));
+            s.append("\n");
+        }
+        s.append("\n");
+        return s.toString();
+    }
+}
@@ -0,0 +1,10 @@
+package Abstraction;
+
+/**
+ * Receives the other end of an arc or an edge, given by its label, with the cost of the arc
+ */
+@FunctionalInterface
+public interface WeightedArcConsumer {
+
+	void accept(int node, int weight);
+}
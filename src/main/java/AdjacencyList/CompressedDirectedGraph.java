@@ -0,0 +1,361 @@
+package AdjacencyList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.WeightedArcConsumer;
+import GraphAlgorithms.GraphTools;
+import Nodes.DirectedNode;
+
+/**
+ * This class represents an immutable directed graph whose successor lists are compressed in a byte array.
+ * The list of node i starts at byte offsets[i] and holds its out-degree, then its successors sorted by label
+ * as gaps: the first one relative to i (zig-zag encoded since it can be negative), each next one relative to
+ * the previous successor. Every number is a varint: 7 bits per byte, the high bit set on all bytes but the last.
+ * With the locality of real graphs most gaps are small and fit in one byte. Costs are not stored.
+ */
+public class CompressedDirectedGraph implements IDirectedGraph {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int order;
+    private final int m;
+    private final int[] offsets;    // start of the list of each node in data, of length n+1
+    private final byte[] data;
+    private volatile CompressedDirectedGraph inverse;   // holds the predecessors, compressed on the first query
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    public CompressedDirectedGraph(DirectedGraph g) {
+        this(new CsrDirectedGraph(g));
+    }
+
+    /**
+     * Compresses the successor rows of a CSR, which are already sorted
+     */
+    public CompressedDirectedGraph(CsrDirectedGraph g) {
+        this.order = g.getNbNodes();
+        this.m = g.getNbArcs();
+        this.offsets = new int[order + 1];
+        int[] rows = g.getOffsets();
+        int[] targets = g.getTargets();
+        long size = 0;
+        for (int i = 0; i < order; i++) {
+            offsets[i] = (int) size;
+            size += varintLength(rows[i + 1] - rows[i]);
+            int previous = i;
+            for (int k = rows[i]; k < rows[i + 1]; k++) {
+                size += varintLength(k == rows[i] ? zigzag(targets[k] - i) : targets[k] - previous);
+                previous = targets[k];
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("the compressed graph exceeds 2GB");
+            }
+        }
+        offsets[order] = (int) size;
+        this.data = new byte[(int) size];
+        int pos = 0;
+        for (int i = 0; i < order; i++) {
+            pos = writeVarint(rows[i + 1] - rows[i], pos);
+            int previous = i;
+            for (int k = rows[i]; k < rows[i + 1]; k++) {
+                pos = writeVarint(k == rows[i] ? zigzag(targets[k] - i) : targets[k] - previous, pos);
+                previous = targets[k];
+            }
+        }
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    @Override
+    public int getNbNodes() {
+        return order;
+    }
+
+    @Override
+    public int getNbArcs() {
+        return m;
+    }
+
+    /**
+     * @return the number of bytes of the compressed successor lists
+     */
+    public int getDataSize() {
+        return data.length;
+    }
+
+    /**
+     * @return the average number of bits per arc of the compressed successor lists, offsets excluded
+     */
+    public double getBitsPerArc() {
+        return m == 0 ? 0 : 8.0 * data.length / m;
+    }
+
+    @Override
+    public int getOutDegree(int x) {
+        return (int) readVarint(offsets[x]);
+    }
+
+    /**
+     * The predecessors are not stored, the first call compresses the inverse graph in O(n + m)
+     */
+    @Override
+    public int getInDegree(int x) {
+        return this.inverse().getOutDegree(x);
+    }
+
+    /**
+     * Decodes the list of x in place, without iterator
+     */
+    @Override
+    public void forEachSuccessor(int x, IntConsumer action) {
+        long r = readVarint(offsets[x]);
+        int remaining = (int) r;
+        int pos = (int) (r >>> 32);
+        int current = x;
+        for (int k = 0; k < remaining; k++) {
+            r = readVarint(pos);
+            pos = (int) (r >>> 32);
+            current = k == 0 ? x + unzigzag((int) r) : current + (int) r;
+            action.accept(current);
+        }
+    }
+
+    /**
+     * The predecessors are not stored, the first call compresses the inverse graph in O(n + m)
+     */
+    @Override
+    public void forEachPredecessor(int x, IntConsumer action) {
+        this.inverse().forEachSuccessor(x, action);
+    }
+
+    @Override
+    public void forEachOutArc(int x, WeightedArcConsumer action) {
+        this.forEachSuccessor(x, s -> action.accept(s, 1));
+    }
+
+    @Override
+    public void forEachInArc(int x, WeightedArcConsumer action) {
+        this.inverse().forEachSuccessor(x, p -> action.accept(p, 1));
+    }
+
+    /**
+     * Double-checked, so that the readers only take the lock while the inverse is not built
+     */
+    private CompressedDirectedGraph inverse() {
+        CompressedDirectedGraph result = inverse;
+        if (result == null) {
+            synchronized (this) {
+                result = inverse;
+                if (result == null) {
+                    result = (CompressedDirectedGraph) this.computeInverse();
+                    inverse = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the successors of node x in increasing order, decoded on the fly
+     */
+    public PrimitiveIterator.OfInt successors(int x) {
+        return new SuccessorIterator(x);
+    }
+
+    public List<Integer> getSuccessors(DirectedNode x) {
+        List<Integer> v = new ArrayList<>();
+        for (PrimitiveIterator.OfInt it = successors(x.getLabel()); it.hasNext(); ) {
+            v.add(it.nextInt());
+        }
+        return v;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    @Override
+    public boolean isArc(DirectedNode from, DirectedNode to) {
+        return isArc(from.getLabel(), to.getLabel());
+    }
+
+    /**
+     * Decodes the list of from until a successor greater or equal to to
+     */
+    @Override
+    public boolean isArc(int from, int to) {
+        for (PrimitiveIterator.OfInt it = successors(from); it.hasNext(); ) {
+            int s = it.nextInt();
+            if (s >= to) {
+                return s == to;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Not supported, the graph is immutable
+     */
+    @Override
+    public void removeArc(DirectedNode from, DirectedNode to) {
+        throw new UnsupportedOperationException("CompressedDirectedGraph is immutable");
+    }
+
+    /**
+     * Not supported, the graph is immutable
+     */
+    @Override
+    public void addArc(DirectedNode from, DirectedNode to) {
+        throw new UnsupportedOperationException("CompressedDirectedGraph is immutable");
+    }
+
+    /**
+     * @return the graph decompressed in a CSR
+     */
+    public CsrDirectedGraph toCsr() {
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        int k = 0;
+        for (int i = 0; i < order; i++) {
+            for (PrimitiveIterator.OfInt it = successors(i); it.hasNext(); k++) {
+                src[k] = i;
+                dst[k] = it.nextInt();
+            }
+        }
+        return new CsrDirectedGraph(order, src, dst, null);
+    }
+
+    @Override
+    public int[][] toAdjacencyMatrix() {
+        int[][] matrix = new int[order][order];
+        for (int i = 0; i < order; i++) {
+            for (PrimitiveIterator.OfInt it = successors(i); it.hasNext(); ) {
+                matrix[i][it.nextInt()]++;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * @return the inverse graph, compressed as well
+     */
+    @Override
+    public IDirectedGraph computeInverse() {
+        return new CompressedDirectedGraph((CsrDirectedGraph) toCsr().computeInverse());
+    }
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static int varintLength(int v) {
+        int length = 1;
+        while ((v & ~0x7F) != 0) {
+            v >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private int writeVarint(int v, int pos) {
+        while ((v & ~0x7F) != 0) {
+            data[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        data[pos++] = (byte) v;
+        return pos;
+    }
+
+    /**
+     * @return the value read at pos in the low 32 bits, and the position after it in the high 32 bits
+     */
+    private long readVarint(int pos) {
+        int v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[pos++];
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return ((long) pos << 32) | (v & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Decodes the list of one node, one gap per call
+     */
+    private class SuccessorIterator implements PrimitiveIterator.OfInt {
+
+        private final int node;
+        private int pos;
+        private int remaining;
+        private int current;
+        private boolean first = true;
+
+        SuccessorIterator(int node) {
+            this.node = node;
+            long r = readVarint(offsets[node]);
+            this.remaining = (int) r;
+            this.pos = (int) (r >>> 32);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            long r = readVarint(pos);
+            pos = (int) (r >>> 32);
+            if (first) {
+                current = node + unzigzag((int) r);
+                first = false;
+            } else {
+                current += (int) r;
+            }
+            remaining--;
+            return current;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < order; i++) {
+            s.append("successors of node-").append(i).append(" : ");
+            for (PrimitiveIterator.OfInt it = successors(i); it.hasNext(); ) {
+                s.append("node-").append(it.nextInt()).append(" ");
+            }
+            s.append("\n");
+        }
+        s.append("\n");
+        return s.toString();
+    }
+
+    public static void main(String[] args) {
+        int[][] matrix = GraphTools.generateGraphData(10, 20, false, false, false, 100001);
+        DirectedGraph al = new DirectedGraph(matrix);
+        CompressedDirectedGraph cg = new CompressedDirectedGraph(al);
+        System.out.println(cg);
+        System.out.println(cg.getDataSize() + " bytes, " + cg.getBitsPerArc() + " bits per arc");
+    }
+}
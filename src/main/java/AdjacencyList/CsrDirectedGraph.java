@@ -0,0 +1,527 @@
+package AdjacencyList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.IUndirectedGraph;
+import Abstraction.WeightedArcConsumer;
+import Collection.IdDictionary;
+import GraphAlgorithms.GraphTools;
+import Nodes.DirectedNode;
+
+/**
+ * This class represents an immutable directed graph stored in compressed sparse row (CSR) format.
+ * The successors of node i are targets[offsets[i] .. offsets[i+1]-1], sorted by label, and a reverse
+ * CSR gives the predecessors the same way. The reverse CSR is built in O(n + m) on the first query of the
+ * predecessors, so the algorithms which only follow the successors never pay for it. An optional parallel
+ * array holds the cost of each arc. Multiple arcs between two nodes are kept.
+ */
+public class CsrDirectedGraph implements IDirectedGraph {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int order;
+    private final int m;
+    private final int[] offsets;        // successors of i are in targets[offsets[i]..offsets[i+1]-1]
+    private final int[] targets;
+    private final int[] weights;        // cost of the arc targets[k], null if the graph is not valued
+    private volatile Reverse reverse;   // the predecessors, built on the first query
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * Builds the CSR of a list graph. The costs are kept if g is a DirectedValuedGraph.
+     */
+    public CsrDirectedGraph(DirectedGraph g) {
+        this.order = g.getNbNodes();
+        boolean valued = g instanceof DirectedValuedGraph;
+        int nbArcs = 0;
+        for (DirectedNode n : g.getNodes()) {
+            nbArcs += n.getNbSuccs();
+        }
+        int[] src = new int[nbArcs];
+        int[] dst = new int[nbArcs];
+        int[] val = valued ? new int[nbArcs] : null;
+        int k = 0;
+        for (DirectedNode n : g.getNodes()) {
+            for (Map.Entry<DirectedNode, Integer> e : n.getSuccs().entrySet()) {
+                src[k] = n.getLabel();
+                dst[k] = e.getKey().getLabel();
+                if (valued) {
+                    val[k] = e.getValue();
+                }
+                k++;
+            }
+        }
+        this.m = nbArcs;
+        this.offsets = new int[order + 1];
+        this.targets = new int[m];
+        this.weights = valued ? new int[m] : null;
+        this.build(src, dst, val);
+    }
+
+    /**
+     * Builds the CSR from a stream of arcs given as parallel arrays, in O(n + m)
+     * @param order the number of nodes, labels must be in [0, order)
+     * @param src the origin of each arc
+     * @param dst the destination of each arc
+     * @param costs the cost of each arc, or null for a graph which is not valued
+     */
+    public CsrDirectedGraph(int order, int[] src, int[] dst, int[] costs) {
+        if (src.length != dst.length || (costs != null && costs.length != src.length)) {
+            throw new IllegalArgumentException("src, dst and costs must have the same length");
+        }
+        for (int k = 0; k < src.length; k++) {
+            if (src[k] < 0 || src[k] >= order || dst[k] < 0 || dst[k] >= order) {
+                throw new IllegalArgumentException("arc (" + src[k] + "," + dst[k] + ") is out of [0," + order + ")");
+            }
+        }
+        this.order = order;
+        this.m = src.length;
+        this.offsets = new int[order + 1];
+        this.targets = new int[m];
+        this.weights = costs != null ? new int[m] : null;
+        this.build(src, dst, costs);
+    }
+
+    /**
+     * Builds the CSR from arcs between external ids, which are interned in ids on the way.
+     * The order of the graph is the size of the dictionary once all arcs are read.
+     * @param costs the cost of each arc, or null for a graph which is not valued
+     */
+    public CsrDirectedGraph(IdDictionary ids, long[] src, long[] dst, int[] costs) {
+        this(internAll(ids, src, dst, costs), ids, costs);
+    }
+
+    private CsrDirectedGraph(int[][] arcs, IdDictionary ids, int[] costs) {
+        this(ids.size(), arcs[0], arcs[1], costs);
+    }
+
+    /**
+     * Checks the lengths first, so that a rejected call leaves the dictionary as it was
+     */
+    private static int[][] internAll(IdDictionary ids, long[] src, long[] dst, int[] costs) {
+        if (src.length != dst.length || (costs != null && costs.length != src.length)) {
+            throw new IllegalArgumentException("src, dst and costs must have the same length");
+        }
+        return new int[][]{ids.intern(src), ids.intern(dst)};
+    }
+
+    /**
+     * Shares the arrays of an existing CSR, used to get the inverse graph without copy
+     */
+    private CsrDirectedGraph(int order, int m, int[] offsets, int[] targets, int[] weights, Reverse reverse) {
+        this.order = order;
+        this.m = m;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.reverse = reverse;
+    }
+
+    /**
+     * @return g itself if it is a CSR, else a CSR of its arcs, with their costs if g is valued. List, compressed
+     * and dynamic graphs are converted directly, the other implementations read through forEachOutArc.
+     */
+    public static CsrDirectedGraph of(IDirectedGraph g) {
+        if (g instanceof CsrDirectedGraph) {
+            return (CsrDirectedGraph) g;
+        }
+        if (g instanceof DirectedGraph) {
+            return new CsrDirectedGraph((DirectedGraph) g);
+        }
+        if (g instanceof CompressedDirectedGraph) {
+            return ((CompressedDirectedGraph) g).toCsr();
+        }
+        if (g instanceof DynamicDirectedGraph) {
+            return ((DynamicDirectedGraph) g).snapshot();
+        }
+        int n = g.getNbNodes();
+        int nbArcs = 0;
+        for (int i = 0; i < n; i++) {
+            nbArcs += g.getOutDegree(i);
+        }
+        ArcReader reader = new ArcReader(nbArcs, g.isValued());
+        for (int i = 0; i < n; i++) {
+            reader.from = i;
+            g.forEachOutArc(i, reader);
+        }
+        return new CsrDirectedGraph(n, reader.src, reader.dst, reader.val);
+    }
+
+    /**
+     * @return the symmetric CSR of g, each edge {x,y} giving the arcs (x,y) and (y,x), with the costs if g is
+     * valued. A self loop gives as many arcs (x,x) as forEachEdge reports it: one for list graphs, two for an
+     * AdjacencyMatrixUndirectedGraph on a full matrix, whose cell counts it twice. It is read through forEachEdge in
+     * O(n + m) for list and mapped graphs.
+     */
+    public static CsrDirectedGraph of(IUndirectedGraph g) {
+        int n = g.getNbNodes();
+        int nbArcs = 0;
+        for (int i = 0; i < n; i++) {
+            nbArcs += g.getDegree(i);
+        }
+        ArcReader reader = new ArcReader(nbArcs, g.isValued());
+        for (int i = 0; i < n; i++) {
+            reader.from = i;
+            g.forEachEdge(i, reader);
+        }
+        return new CsrDirectedGraph(n, reader.src, reader.dst, reader.val);
+    }
+
+    /**
+     * Collects the arcs of a graph in parallel arrays, from being set before each row is read
+     */
+    private static final class ArcReader implements WeightedArcConsumer {
+
+        private final int[] src;
+        private final int[] dst;
+        private final int[] val;
+        private int from;
+        private int k;
+
+        ArcReader(int nbArcs, boolean valued) {
+            this.src = new int[nbArcs];
+            this.dst = new int[nbArcs];
+            this.val = valued ? new int[nbArcs] : null;
+        }
+
+        @Override
+        public void accept(int node, int weight) {
+            src[k] = from;
+            dst[k] = node;
+            if (val != null) {
+                val[k] = weight;
+            }
+            k++;
+        }
+    }
+
+    /**
+     * Two stable counting sorts: arcs are first bucketed by destination, then scanning the
+     * destinations in increasing order fills the rows of the successors already sorted.
+     */
+    private void build(int[] src, int[] dst, int[] costs) {
+        int[] next = new int[order + 1];
+        for (int d : dst) {
+            next[d + 1]++;
+        }
+        for (int i = 0; i < order; i++) {
+            next[i + 1] += next[i];
+        }
+        int[] byDst = new int[m];
+        for (int k = 0; k < m; k++) {
+            byDst[next[dst[k]]++] = k;
+        }
+
+        for (int s : src) {
+            offsets[s + 1]++;
+        }
+        for (int i = 0; i < order; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        System.arraycopy(offsets, 0, next, 0, order);
+        for (int k : byDst) {
+            int pos = next[src[k]]++;
+            targets[pos] = dst[k];
+            if (weights != null) {
+                weights[pos] = costs[k];
+            }
+        }
+    }
+
+    /**
+     * Double-checked, so that the readers only take the lock while the reverse CSR is not built
+     */
+    private Reverse reverse() {
+        Reverse result = reverse;
+        if (result == null) {
+            synchronized (this) {
+                result = reverse;
+                if (result == null) {
+                    result = new Reverse(order, offsets, targets, weights);
+                    reverse = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The rows of the predecessors. Scanning the rows of the successors in order fills them sorted.
+     */
+    private static final class Reverse {
+
+        private final int[] offsets;    // predecessors of i are in sources[offsets[i]..offsets[i+1]-1]
+        private final int[] sources;
+        private final int[] weights;    // cost of the arc (sources[k], i), null if the graph is not valued
+
+        Reverse(int order, int[] succOffsets, int[] targets, int[] succWeights) {
+            this.offsets = new int[order + 1];
+            this.sources = new int[targets.length];
+            this.weights = succWeights != null ? new int[targets.length] : null;
+            for (int t : targets) {
+                offsets[t + 1]++;
+            }
+            for (int i = 0; i < order; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] next = Arrays.copyOf(offsets, order);
+            for (int i = 0; i < order; i++) {
+                for (int k = succOffsets[i]; k < succOffsets[i + 1]; k++) {
+                    int pos = next[targets[k]]++;
+                    sources[pos] = i;
+                    if (weights != null) {
+                        weights[pos] = succWeights[k];
+                    }
+                }
+            }
+        }
+
+        Reverse(int[] offsets, int[] sources, int[] weights) {
+            this.offsets = offsets;
+            this.sources = sources;
+            this.weights = weights;
+        }
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    @Override
+    public int getNbNodes() {
+        return this.order;
+    }
+
+    @Override
+    public int getNbArcs() {
+        return this.m;
+    }
+
+    @Override
+    public boolean isValued() {
+        return this.weights != null;
+    }
+
+    /**
+     * @return the row offsets of the successors, of length n+1
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * @return the concatenated successor rows, of length m
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return the cost of each arc of getTargets(), or null if the graph is not valued
+     */
+    public int[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * @return the row offsets of the predecessors, of length n+1, building the reverse CSR on the first call
+     */
+    public int[] getPredOffsets() {
+        return this.reverse().offsets;
+    }
+
+    /**
+     * @return the concatenated predecessor rows, of length m, building the reverse CSR on the first call
+     */
+    public int[] getSources() {
+        return this.reverse().sources;
+    }
+
+    /**
+     * @return the cost of each arc of getSources(), or null if the graph is not valued
+     */
+    public int[] getPredWeights() {
+        return this.reverse().weights;
+    }
+
+    @Override
+    public int getOutDegree(int x) {
+        return offsets[x + 1] - offsets[x];
+    }
+
+    @Override
+    public int getInDegree(int x) {
+        int[] predOffsets = this.reverse().offsets;
+        return predOffsets[x + 1] - predOffsets[x];
+    }
+
+    /**
+     * @return a copy of the row of the successors of x, sorted
+     */
+    @Override
+    public int[] getSuccessors(int x) {
+        return Arrays.copyOfRange(targets, offsets[x], offsets[x + 1]);
+    }
+
+    /**
+     * @return a copy of the row of the predecessors of x, sorted
+     */
+    @Override
+    public int[] getPredecessors(int x) {
+        Reverse r = this.reverse();
+        return Arrays.copyOfRange(r.sources, r.offsets[x], r.offsets[x + 1]);
+    }
+
+    @Override
+    public void forEachSuccessor(int x, IntConsumer action) {
+        for (int k = offsets[x]; k < offsets[x + 1]; k++) {
+            action.accept(targets[k]);
+        }
+    }
+
+    @Override
+    public void forEachPredecessor(int x, IntConsumer action) {
+        Reverse r = this.reverse();
+        for (int k = r.offsets[x]; k < r.offsets[x + 1]; k++) {
+            action.accept(r.sources[k]);
+        }
+    }
+
+    @Override
+    public void forEachOutArc(int x, WeightedArcConsumer action) {
+        for (int k = offsets[x]; k < offsets[x + 1]; k++) {
+            action.accept(targets[k], weights != null ? weights[k] : 1);
+        }
+    }
+
+    @Override
+    public void forEachInArc(int x, WeightedArcConsumer action) {
+        Reverse r = this.reverse();
+        for (int k = r.offsets[x]; k < r.offsets[x + 1]; k++) {
+            action.accept(r.sources[k], r.weights != null ? r.weights[k] : 1);
+        }
+    }
+
+    public List<Integer> getSuccessors(DirectedNode x) {
+        List<Integer> v = new ArrayList<>(getOutDegree(x.getLabel()));
+        for (int k = offsets[x.getLabel()]; k < offsets[x.getLabel() + 1]; k++) {
+            v.add(targets[k]);
+        }
+        return v;
+    }
+
+    public List<Integer> getPredecessors(DirectedNode x) {
+        List<Integer> v = new ArrayList<>(getInDegree(x.getLabel()));
+        Reverse r = this.reverse();
+        for (int k = r.offsets[x.getLabel()]; k < r.offsets[x.getLabel() + 1]; k++) {
+            v.add(r.sources[k]);
+        }
+        return v;
+    }
+
+    /**
+     * @return the position in getTargets() of an arc (from,to), or -1 if there is none
+     */
+    public int arcIndex(int from, int to) {
+        int k = Arrays.binarySearch(targets, offsets[from], offsets[from + 1], to);
+        return k >= 0 ? k : -1;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    @Override
+    public boolean isArc(DirectedNode from, DirectedNode to) {
+        return arcIndex(from.getLabel(), to.getLabel()) >= 0;
+    }
+
+    @Override
+    public boolean isArc(int from, int to) {
+        return arcIndex(from, to) >= 0;
+    }
+
+    /**
+     * Not supported, the graph is immutable
+     */
+    @Override
+    public void removeArc(DirectedNode from, DirectedNode to) {
+        throw new UnsupportedOperationException("CsrDirectedGraph is immutable");
+    }
+
+    /**
+     * Not supported, the graph is immutable
+     */
+    @Override
+    public void addArc(DirectedNode from, DirectedNode to) {
+        throw new UnsupportedOperationException("CsrDirectedGraph is immutable");
+    }
+
+    /**
+     * @return the adjacency matrix representation int[][] of the graph, counting multiple arcs
+     */
+    @Override
+    public int[][] toAdjacencyMatrix() {
+        int[][] matrix = new int[order][order];
+        for (int i = 0; i < order; i++) {
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                matrix[i][targets[k]]++;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * @return the inverse graph, sharing the arrays of this graph with successors and predecessors swapped
+     */
+    @Override
+    public IDirectedGraph computeInverse() {
+        Reverse r = this.reverse();
+        return new CsrDirectedGraph(order, m, r.offsets, r.sources, r.weights, new Reverse(offsets, targets, weights));
+    }
+
+    /**
+     * @return the inverse graph, which already shares the arrays of this graph
+     */
+    @Override
+    public IDirectedGraph transposedView() {
+        return this.computeInverse();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < order; i++) {
+            s.append("successors of node-").append(i).append(" : ");
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                if (weights != null) {
+                    s.append("(node-").append(targets[k]).append(",").append(weights[k]).append(")  ");
+                } else {
+                    s.append("node-").append(targets[k]).append(" ");
+                }
+            }
+            s.append("\n");
+        }
+        s.append("\n");
+        return s.toString();
+    }
+
+    public static void main(String[] args) {
+        int[][] matrixValued = GraphTools.generateValuedGraphData(10, false, false, true, false, 100001);
+        GraphTools.afficherMatrix(matrixValued);
+        CsrDirectedGraph csr = new CsrDirectedGraph(new DirectedValuedGraph(matrixValued));
+        System.out.println(csr);
+        System.out.println(csr.computeInverse());
+        System.out.println(csr.getPredecessors(new DirectedNode(2)));
+    }
+}
@@ -2,8 +2,10 @@ package AdjacencyList;
 
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.function.IntConsumer;
 
 import Abstraction.AbstractListGraph;
+import Abstraction.WeightedArcConsumer;
 import GraphAlgorithms.GraphTools;
 import Nodes.DirectedNode;
 import Abstraction.IDirectedGraph;
@@ -22,6 +24,27 @@ public class DirectedGraph extends AbstractListGraph<DirectedNode> implements ID
 	}
 
     public DirectedGraph(int[][] matrix) {
+        this(matrix, false);
+    }
+
+    /**
+     * Creates a graph of order nodes without arcs
+     * @param compactAdjacency at true to store the successors and predecessors of the nodes by label, see Nodes.LabelMap
+     */
+    public DirectedGraph(int order, boolean compactAdjacency) {
+        this.compactAdjacency = compactAdjacency;
+        this.order = order;
+        this.nodes = new ArrayList<DirectedNode>(order);
+        for (int i = 0; i < this.order; i++) {
+            this.nodes.add(i, this.makeNode(i));
+        }
+    }
+
+    /**
+     * @param compactAdjacency at true to store the successors and predecessors of the nodes by label, see Nodes.LabelMap
+     */
+    public DirectedGraph(int[][] matrix, boolean compactAdjacency) {
+        this.compactAdjacency = compactAdjacency;
         this.order = matrix.length;
         this.nodes = new ArrayList<DirectedNode>();
         for (int i = 0; i < this.order; i++) {
@@ -39,20 +62,24 @@ public class DirectedGraph extends AbstractListGraph<DirectedNode> implements ID
         }
     }
 
+    /**
+     * Deep copy of g, costs included
+     */
     public DirectedGraph(DirectedGraph g) {
         super();
         this.nodes = new ArrayList<>();
         this.order = g.getNbNodes();
         this.m = g.getNbArcs();
+        this.compactAdjacency = g.isCompactAdjacency();
         for(DirectedNode n : g.getNodes()) {
             this.nodes.add(makeNode(n.getLabel()));
         }
         for (DirectedNode n : g.getNodes()) {
         	DirectedNode nn = this.getNodes().get(n.getLabel());
-            for (DirectedNode sn : n.getSuccs().keySet()) {
-                DirectedNode snn = this.getNodes().get(sn.getLabel());
-                nn.getSuccs().put(snn,0);
-                snn.getPreds().put(nn,0);
+            for (Map.Entry<DirectedNode, Integer> e : n.getSuccs().entrySet()) {
+                DirectedNode snn = this.getNodes().get(e.getKey().getLabel());
+                nn.getSuccs().put(snn, e.getValue());
+                snn.getPreds().put(nn, e.getValue());
             }
         }
 
@@ -72,16 +99,66 @@ public class DirectedGraph extends AbstractListGraph<DirectedNode> implements ID
         return getNodeOfList(from).getSuccs().containsKey(getNodeOfList(to));
     }
 
+    @Override
+    public boolean isArc(int from, int to) {
+        return this.nodes.get(from).getSuccs().containsKey(this.nodes.get(to));
+    }
+
+    @Override
+    public int getOutDegree(int x) {
+        return this.nodes.get(x).getNbSuccs();
+    }
+
+    @Override
+    public int getInDegree(int x) {
+        return this.nodes.get(x).getNbPreds();
+    }
+
+    @Override
+    public void forEachSuccessor(int x, IntConsumer action) {
+        forEachLabel(this.nodes.get(x).getSuccs(), action);
+    }
+
+    @Override
+    public void forEachPredecessor(int x, IntConsumer action) {
+        forEachLabel(this.nodes.get(x).getPreds(), action);
+    }
+
+    @Override
+    public void forEachOutArc(int x, WeightedArcConsumer action) {
+        forEachEntry(this.nodes.get(x).getSuccs(), this.isValued(), action);
+    }
+
+    @Override
+    public void forEachInArc(int x, WeightedArcConsumer action) {
+        forEachEntry(this.nodes.get(x).getPreds(), this.isValued(), action);
+    }
+
     @Override
     public void removeArc(DirectedNode from, DirectedNode to) {
     	if(this.isArc(from, to)) {
     	    this.getNodeOfList(from).getSuccs().remove(to);
+    	    this.getNodeOfList(to).getPreds().remove(from);
+    	    this.m--;
         }
     }
 
     @Override
     public void addArc(DirectedNode from, DirectedNode to) {
-        this.getNodeOfList(from).addSucc(to, to.getLabel());
+        this.addArc(from, to, 0);
+    }
+
+    /**
+     * Adds the arc (from,to) with the value val in the maps of both nodes, if it is not already present in the graph
+     */
+    protected void addArc(DirectedNode from, DirectedNode to, int val) {
+        if(!this.isArc(from, to)) {
+            DirectedNode nFrom = this.getNodeOfList(from);
+            DirectedNode nTo = this.getNodeOfList(to);
+            nFrom.addSucc(nTo, val);
+            nTo.addPred(nFrom, val);
+            this.m++;
+        }
     }
 
     //--------------------------------------------------
@@ -95,9 +172,19 @@ public class DirectedGraph extends AbstractListGraph<DirectedNode> implements ID
      */
     @Override
     public DirectedNode makeNode(int label) {
+        if (this.compactAdjacency) {
+            return new DirectedNode(label, l -> this.nodes.get(l));
+        }
         return new DirectedNode(label);
     }
 
+    /**
+     * @return a deep copy of the graph, of the same class
+     */
+    protected DirectedGraph copy() {
+        return new DirectedGraph(this);
+    }
+
     /**
      * @return the corresponding nodes in the list this.nodes
      */
@@ -120,9 +207,13 @@ public class DirectedGraph extends AbstractListGraph<DirectedNode> implements ID
         return matrix;
     }
 
+    /**
+     * @return a copy of the graph with every arc reversed, of the same class and with the same costs.
+     * transposedView() gives the same arcs without copying anything.
+     */
     @Override
     public IDirectedGraph computeInverse() {
-        DirectedGraph g = new DirectedGraph(this);
+        DirectedGraph g = this.copy();
         for(DirectedNode node : g.getNodes()) {
             Map<DirectedNode, Integer> pred = node.getPreds();
             node.setPreds(node.getSuccs());
@@ -12,7 +12,30 @@ public class DirectedValuedGraph extends DirectedGraph {
     //--------------------------------------------------
 
 	public DirectedValuedGraph(int[][] matrixVal) {
+		this(matrixVal, false);
+	}
+
+    /**
+     * Creates a graph of order nodes without arcs
+     * @param compactAdjacency at true to store the successors and predecessors of the nodes by label, see Nodes.LabelMap
+     */
+	public DirectedValuedGraph(int order, boolean compactAdjacency) {
+		super(order, compactAdjacency);
+	}
+
+    /**
+     * Deep copy of g, costs included
+     */
+	public DirectedValuedGraph(DirectedValuedGraph g) {
+		super(g);
+	}
+
+    /**
+     * @param compactAdjacency at true to store the successors and predecessors of the nodes by label, see Nodes.LabelMap
+     */
+	public DirectedValuedGraph(int[][] matrixVal, boolean compactAdjacency) {
     	super();
+    	this.compactAdjacency = compactAdjacency;
     	this.order = matrixVal.length;
         this.nodes = new ArrayList<DirectedNode>();
         for (int i = 0; i < this.order; i++) {
@@ -35,11 +58,22 @@ public class DirectedValuedGraph extends DirectedGraph {
     // ------------------------------------------
     
 
+    @Override
+    public boolean isValued() {
+        return true;
+    }
+
+    @Override
+    protected DirectedGraph copy() {
+        return new DirectedValuedGraph(this);
+    }
+
     /**
      * Adds the arc (from,to) with cost  if it is not already present in the graph
      */
+    @Override
     public void addArc(DirectedNode from, DirectedNode to, int cost) {
-    	// A completer      
+    	super.addArc(from, to, cost);
     }
     
     @Override
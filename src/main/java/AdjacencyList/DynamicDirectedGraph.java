@@ -0,0 +1,513 @@
+package AdjacencyList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.WeightedArcConsumer;
+import Collection.LongIntHashMap;
+import GraphAlgorithms.GraphTools;
+import Nodes.DirectedNode;
+
+/**
+ * This class represents a simple directed graph for continuous updates. The arcs live in an immutable
+ * CsrDirectedGraph, the base, and every insertion or deletion is appended to a delta buffer on top of it.
+ * Reads merge the base and the delta. When the delta grows over a threshold it is frozen and merged
+ * into a new base by a background thread, while new updates go to a fresh delta.
+ * All methods are synchronized, the compaction itself runs outside the lock.
+ */
+public class DynamicDirectedGraph implements IDirectedGraph {
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "graph-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int order;
+    private int m;
+    private CsrDirectedGraph base;
+    private Delta frozen;           // delta being merged in the background, null if none
+    private Delta active;           // delta receiving the updates
+    private Future<?> compaction;
+    private int compactionThreshold;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * Creates a graph of order nodes without arcs
+     */
+    public DynamicDirectedGraph(int order) {
+        this(new CsrDirectedGraph(order, new int[0], new int[0], null));
+    }
+
+    public DynamicDirectedGraph(DirectedGraph g) {
+        this(new CsrDirectedGraph(g));
+    }
+
+    /**
+     * @param base the initial arcs, which must not contain multiple arcs, its costs are ignored
+     */
+    public DynamicDirectedGraph(CsrDirectedGraph base) {
+        this.order = base.getNbNodes();
+        this.m = base.getNbArcs();
+        this.base = base;
+        this.active = new Delta(order);
+        this.compactionThreshold = Math.max(1024, base.getNbArcs() / 4);
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    @Override
+    public int getNbNodes() {
+        return order;
+    }
+
+    @Override
+    public synchronized int getNbArcs() {
+        return m;
+    }
+
+    /**
+     * @return the number of updates not merged in the base yet
+     */
+    public synchronized int getDeltaSize() {
+        return active.size + (frozen != null ? frozen.size : 0);
+    }
+
+    /**
+     * @param threshold the size of the delta which triggers a background compaction
+     */
+    public synchronized void setCompactionThreshold(int threshold) {
+        this.compactionThreshold = threshold;
+    }
+
+    /**
+     * @return the successors of x: those of the base first, sorted, then the ones added since
+     */
+    @Override
+    public synchronized int[] getSuccessors(int x) {
+        int[] offsets = base.getOffsets();
+        int[] targets = base.getTargets();
+        int[] res = new int[offsets[x + 1] - offsets[x] + active.count(x) + (frozen != null ? frozen.count(x) : 0)];
+        int k = 0;
+        boolean updated = this.updatesFrom(x);
+        for (int p = offsets[x]; p < offsets[x + 1]; p++) {
+            if (!updated || this.keeps(x, targets[p])) {
+                res[k++] = targets[p];
+            }
+        }
+        if (frozen != null) {
+            for (int e = frozen.head[x]; e >= 0; e = frozen.next[e]) {
+                int t = frozen.to[e];
+                if (frozen.present[e] && active.state(x, t) < 0 && base.arcIndex(x, t) < 0) {
+                    res[k++] = t;
+                }
+            }
+        }
+        for (int e = active.head[x]; e >= 0; e = active.next[e]) {
+            if (active.present[e] && base.arcIndex(x, active.to[e]) < 0) {
+                res[k++] = active.to[e];
+            }
+        }
+        return Arrays.copyOf(res, k);
+    }
+
+    @Override
+    public synchronized int getOutDegree(int x) {
+        int[] d = {0};
+        this.forEachSuccessor(x, s -> d[0]++);
+        return d[0];
+    }
+
+    @Override
+    public synchronized int getInDegree(int x) {
+        int[] d = {0};
+        this.forEachPredecessor(x, p -> d[0]++);
+        return d[0];
+    }
+
+    /**
+     * Calls action on the successors of x in the order of getSuccessors(x), holding the lock of the graph
+     */
+    @Override
+    public synchronized void forEachSuccessor(int x, IntConsumer action) {
+        int[] offsets = base.getOffsets();
+        int[] targets = base.getTargets();
+        boolean updated = this.updatesFrom(x);
+        for (int p = offsets[x]; p < offsets[x + 1]; p++) {
+            if (!updated || this.keeps(x, targets[p])) {
+                action.accept(targets[p]);
+            }
+        }
+        if (frozen != null) {
+            for (int e = frozen.head[x]; e >= 0; e = frozen.next[e]) {
+                int t = frozen.to[e];
+                if (frozen.present[e] && active.state(x, t) < 0 && base.arcIndex(x, t) < 0) {
+                    action.accept(t);
+                }
+            }
+        }
+        for (int e = active.head[x]; e >= 0; e = active.next[e]) {
+            if (active.present[e] && base.arcIndex(x, active.to[e]) < 0) {
+                action.accept(active.to[e]);
+            }
+        }
+    }
+
+    /**
+     * Calls action on the predecessors of x, those of the base first, holding the lock of the graph.
+     * The deltas are not indexed by destination, so this scans all their entries.
+     */
+    @Override
+    public synchronized void forEachPredecessor(int x, IntConsumer action) {
+        int[] predOffsets = base.getPredOffsets();
+        int[] sources = base.getSources();
+        boolean updated = active.hasTarget(x) || (frozen != null && frozen.hasTarget(x));
+        for (int p = predOffsets[x]; p < predOffsets[x + 1]; p++) {
+            if (!updated || this.keeps(sources[p], x)) {
+                action.accept(sources[p]);
+            }
+        }
+        if (frozen != null) {
+            for (int e = 0; e < frozen.size; e++) {
+                int f = frozen.from[e];
+                if (frozen.to[e] == x && frozen.present[e] && active.state(f, x) < 0 && base.arcIndex(f, x) < 0) {
+                    action.accept(f);
+                }
+            }
+        }
+        for (int e = 0; e < active.size; e++) {
+            if (active.to[e] == x && active.present[e] && base.arcIndex(active.from[e], x) < 0) {
+                action.accept(active.from[e]);
+            }
+        }
+    }
+
+    /**
+     * The graph is not valued, every arc costs 1
+     */
+    @Override
+    public void forEachOutArc(int x, WeightedArcConsumer action) {
+        this.forEachSuccessor(x, s -> action.accept(s, 1));
+    }
+
+    /**
+     * The graph is not valued, every arc costs 1
+     */
+    @Override
+    public void forEachInArc(int x, WeightedArcConsumer action) {
+        this.forEachPredecessor(x, p -> action.accept(p, 1));
+    }
+
+    public List<Integer> getSuccessors(DirectedNode x) {
+        List<Integer> v = new ArrayList<>();
+        for (int s : getSuccessors(x.getLabel())) {
+            v.add(s);
+        }
+        return v;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    @Override
+    public boolean isArc(DirectedNode from, DirectedNode to) {
+        return isArc(from.getLabel(), to.getLabel());
+    }
+
+    @Override
+    public synchronized boolean isArc(int from, int to) {
+        int state = active.state(from, to);
+        if (state < 0 && frozen != null) {
+            state = frozen.state(from, to);
+        }
+        return state < 0 ? base.arcIndex(from, to) >= 0 : state == 1;
+    }
+
+    /**
+     * @return true if a delta holds an arc from x, otherwise all the arcs of x in the base are kept
+     */
+    private boolean updatesFrom(int x) {
+        return active.head[x] >= 0 || (frozen != null && frozen.head[x] >= 0);
+    }
+
+    /**
+     * @return false if the arc (from,to) of the base was removed by the last delta which updated it
+     */
+    private boolean keeps(int from, int to) {
+        int state = active.state(from, to);
+        if (state < 0 && frozen != null) {
+            state = frozen.state(from, to);
+        }
+        return state != 0;
+    }
+
+    @Override
+    public synchronized void removeArc(DirectedNode from, DirectedNode to) {
+        if (!isArc(from, to)) {
+            return;
+        }
+        active.set(from.getLabel(), to.getLabel(), false);
+        m--;
+        this.checkDelta();
+    }
+
+    /**
+     * Adds the arc (from,to) if it is not already present in the graph
+     */
+    @Override
+    public synchronized void addArc(DirectedNode from, DirectedNode to) {
+        if (isArc(from, to)) {
+            return;
+        }
+        active.set(from.getLabel(), to.getLabel(), true);
+        m++;
+        this.checkDelta();
+    }
+
+    private void checkDelta() {
+        if (active.size >= compactionThreshold && frozen == null) {
+            this.compactAsync();
+        }
+    }
+
+    /**
+     * Freezes the delta and merges it into a new base in the background, unless a compaction is running.
+     * If the merge fails, the frozen updates go back into the delta so that a later compaction retries them,
+     * and the failure is reported by the returned future only.
+     * @return the pending compaction
+     */
+    public synchronized Future<?> compactAsync() {
+        if (frozen != null || active.size == 0) {
+            return compaction;
+        }
+        final CsrDirectedGraph snapshot = base;
+        final Delta toMerge = active;
+        frozen = active;
+        active = new Delta(order);
+        compaction = COMPACTOR.submit(() -> {
+            CsrDirectedGraph merged;
+            try {
+                merged = merge(snapshot, toMerge);
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    this.unfreeze();
+                }
+                throw e;
+            }
+            synchronized (this) {
+                base = merged;
+                frozen = null;
+            }
+        });
+        return compaction;
+    }
+
+    /**
+     * Puts the updates of the frozen delta back under those of the active one, after a failed merge
+     */
+    private void unfreeze() {
+        for (int e = 0; e < active.size; e++) {
+            frozen.set(active.from[e], active.to[e], active.present[e]);
+        }
+        active = frozen;
+        frozen = null;
+        compaction = null;
+    }
+
+    /**
+     * Merges the whole delta into the base before returning
+     */
+    public void compact() {
+        this.awaitCompaction();
+        this.compactAsync();
+        this.awaitCompaction();
+    }
+
+    /**
+     * Waits for the end of the running compaction, if any
+     */
+    public void awaitCompaction() {
+        Future<?> pending;
+        synchronized (this) {
+            pending = compaction;
+        }
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("compaction failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return a new base holding the arcs of base updated by delta, neither of which is modified any more
+     */
+    private static CsrDirectedGraph merge(CsrDirectedGraph base, Delta delta) {
+        int n = base.getNbNodes();
+        int[] offsets = base.getOffsets();
+        int[] targets = base.getTargets();
+        int[] src = new int[base.getNbArcs() + delta.size];
+        int[] dst = new int[src.length];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+                if (delta.state(i, targets[p]) != 0) {
+                    src[k] = i;
+                    dst[k++] = targets[p];
+                }
+            }
+            for (int e = delta.head[i]; e >= 0; e = delta.next[e]) {
+                if (delta.present[e] && base.arcIndex(i, delta.to[e]) < 0) {
+                    src[k] = i;
+                    dst[k++] = delta.to[e];
+                }
+            }
+        }
+        return new CsrDirectedGraph(n, Arrays.copyOf(src, k), Arrays.copyOf(dst, k), null);
+    }
+
+    @Override
+    public synchronized int[][] toAdjacencyMatrix() {
+        int[][] matrix = new int[order][order];
+        for (int i = 0; i < order; i++) {
+            for (int j : getSuccessors(i)) {
+                matrix[i][j] = 1;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * @return the current arcs merged in a CSR, without touching the delta
+     */
+    public synchronized CsrDirectedGraph snapshot() {
+        CsrDirectedGraph current = base;
+        if (frozen != null) {
+            current = merge(current, frozen);
+        }
+        return active.size == 0 ? current : merge(current, active);
+    }
+
+    /**
+     * @return a new dynamic graph whose base is the inverse of the current arcs
+     */
+    @Override
+    public synchronized IDirectedGraph computeInverse() {
+        return new DynamicDirectedGraph((CsrDirectedGraph) snapshot().computeInverse());
+    }
+
+    /**
+     * The updates of a period: the last state of each updated arc, and per origin node the list of its entries
+     */
+    private static class Delta {
+
+        private final LongIntHashMap index = new LongIntHashMap();  // arc (from << 32 | to) -> entry
+        private final int[] head;       // first entry of each origin node, -1 if none
+        private int[] next = new int[16];
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private boolean[] present = new boolean[16];
+        private int size;
+
+        Delta(int order) {
+            this.head = new int[order];
+            Arrays.fill(head, -1);
+        }
+
+        /**
+         * @return the number of arcs from node x updated in this delta
+         */
+        int count(int x) {
+            int c = 0;
+            for (int e = head[x]; e >= 0; e = next[e]) {
+                c++;
+            }
+            return c;
+        }
+
+        /**
+         * @return true if an arc to node x was updated in this delta, in O(size)
+         */
+        boolean hasTarget(int x) {
+            for (int e = 0; e < size; e++) {
+                if (to[e] == x) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return 1 if the arc was added last, 0 if it was removed last, -1 if it was not updated
+         */
+        int state(int from, int to) {
+            int e = index.get(((long) from << 32) | to, -1);
+            return e < 0 ? -1 : (present[e] ? 1 : 0);
+        }
+
+        void set(int from, int target, boolean isPresent) {
+            long key = ((long) from << 32) | target;
+            int e = index.get(key, -1);
+            if (e < 0) {
+                if (size == to.length) {
+                    next = Arrays.copyOf(next, size * 2);
+                    this.from = Arrays.copyOf(this.from, size * 2);
+                    to = Arrays.copyOf(to, size * 2);
+                    present = Arrays.copyOf(present, size * 2);
+                }
+                e = size++;
+                index.put(key, e);
+                this.from[e] = from;
+                to[e] = target;
+                next[e] = head[from];
+                head[from] = e;
+            }
+            present[e] = isPresent;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < order; i++) {
+            s.append("successors of node-").append(i).append(" : ");
+            for (int j : getSuccessors(i)) {
+                s.append("node-").append(j).append(" ");
+            }
+            s.append("\n");
+        }
+        s.append("\n");
+        return s.toString();
+    }
+
+    public static void main(String[] args) {
+        int[][] matrix = GraphTools.generateGraphData(10, 20, false, false, false, 100001);
+        DynamicDirectedGraph g = new DynamicDirectedGraph(new DirectedGraph(matrix));
+        g.addArc(new DirectedNode(0), new DirectedNode(9));
+        g.removeArc(new DirectedNode(1), new DirectedNode(2));
+        System.out.println(g);
+        g.compact();
+        System.out.println(g.getDeltaSize() + " updates pending, " + g.getNbArcs() + " arcs");
+    }
+}
@@ -2,8 +2,11 @@ package AdjacencyList;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
 import Abstraction.AbstractListGraph;
+import Abstraction.WeightedArcConsumer;
 import GraphAlgorithms.GraphTools;
 import Nodes.UndirectedNode;
 import Abstraction.IUndirectedGraph;
@@ -26,6 +29,27 @@ public class UndirectedGraph extends AbstractListGraph<UndirectedNode> implement
     }
 
     public UndirectedGraph(int[][] matrix) {
+        this(matrix, false);
+    }
+
+    /**
+     * Creates a graph of order nodes without edges
+     * @param compactAdjacency at true to store the neighbours of the nodes by label, see Nodes.LabelMap
+     */
+    public UndirectedGraph(int order, boolean compactAdjacency) {
+        this.compactAdjacency = compactAdjacency;
+        this.order = order;
+        this.nodes = new ArrayList<>(order);
+        for (int i = 0; i < this.order; i++) {
+            this.nodes.add(this.makeNode(i));
+        }
+    }
+
+    /**
+     * @param compactAdjacency at true to store the neighbours of the nodes by label, see Nodes.LabelMap
+     */
+    public UndirectedGraph(int[][] matrix, boolean compactAdjacency) {
+        this.compactAdjacency = compactAdjacency;
         this.order = matrix.length;
         this.nodes = new ArrayList<>();
         for (int i = 0; i < this.order; i++) {
@@ -43,20 +67,24 @@ public class UndirectedGraph extends AbstractListGraph<UndirectedNode> implement
         }
     }
 
+    /**
+     * Deep copy of g, costs included
+     */
     public UndirectedGraph(UndirectedGraph g) {
         super();
         this.order = g.getNbNodes();
         this.m = g.getNbEdges();
+        this.compactAdjacency = g.isCompactAdjacency();
         this.nodes = new ArrayList<>();
         for (UndirectedNode n : g.getNodes()) {
             this.nodes.add(makeNode(n.getLabel()));
         }
         for (UndirectedNode n : g.getNodes()) {
         	UndirectedNode nn = this.getNodes().get(n.getLabel());
-            for (UndirectedNode sn : n.getNeighbours().keySet()) {
-            	UndirectedNode snn = this.getNodes().get(sn.getLabel());
-                nn.getNeighbours().put(snn,0);
-                snn.getNeighbours().put(nn,0);
+            for (Map.Entry<UndirectedNode, Integer> e : n.getNeighbours().entrySet()) {
+            	UndirectedNode snn = this.getNodes().get(e.getKey().getLabel());
+                nn.getNeighbours().put(snn, e.getValue());
+                snn.getNeighbours().put(nn, e.getValue());
             }
         }
 
@@ -76,19 +104,50 @@ public class UndirectedGraph extends AbstractListGraph<UndirectedNode> implement
     	return getNodeOfList(x).getNeighbours().containsKey(getNodeOfList(y));
     }
 
+    @Override
+    public boolean isEdge(int x, int y) {
+        return this.nodes.get(x).getNeighbours().containsKey(this.nodes.get(y));
+    }
+
+    @Override
+    public int getDegree(int x) {
+        return this.nodes.get(x).getNbNeigh();
+    }
+
+    @Override
+    public void forEachNeighbour(int x, IntConsumer action) {
+        forEachLabel(this.nodes.get(x).getNeighbours(), action);
+    }
+
+    @Override
+    public void forEachEdge(int x, WeightedArcConsumer action) {
+        forEachEntry(this.nodes.get(x).getNeighbours(), this.isValued(), action);
+    }
+
     @Override
     public void removeEdge(UndirectedNode x, UndirectedNode y) {
     	if(isEdge(x,y)){
     		this.getNodeOfList(x).getNeighbours().remove(y);
             this.getNodeOfList(y).getNeighbours().remove(x);
+            this.m--;
     	}
     }
 
     @Override
     public void addEdge(UndirectedNode x, UndirectedNode y) {
+    	this.addEdge(x, y, 0);
+    }
+
+    /**
+     * Adds the edge (x,y) with the value val in the maps of both nodes, if it is not already present in the graph
+     */
+    protected void addEdge(UndirectedNode x, UndirectedNode y, int val) {
     	if(!isEdge(x,y)){
-            this.getNodeOfList(x).getNeighbours().put(y, y.getLabel());
-            this.getNodeOfList(y).getNeighbours().put(x, x.getLabel());
+    		UndirectedNode nX = this.getNodeOfList(x);
+    		UndirectedNode nY = this.getNodeOfList(y);
+            nX.addNeigh(nY, val);
+            nY.addNeigh(nX, val);
+            this.m++;
     	}
     }
 
@@ -103,6 +162,9 @@ public class UndirectedGraph extends AbstractListGraph<UndirectedNode> implement
      */
     @Override
     public UndirectedNode makeNode(int label) {
+        if (this.compactAdjacency) {
+            return new UndirectedNode(label, l -> this.nodes.get(l));
+        }
         return new UndirectedNode(label);
     }
 
@@ -12,7 +12,23 @@ public class UndirectedValuedGraph extends UndirectedGraph{
     //--------------------------------------------------
 
     public UndirectedValuedGraph(int[][] matrixVal) {
+    	this(matrixVal, false);
+    }
+
+    /**
+     * Creates a graph of order nodes without edges
+     * @param compactAdjacency at true to store the neighbours of the nodes by label, see Nodes.LabelMap
+     */
+    public UndirectedValuedGraph(int order, boolean compactAdjacency) {
+    	super(order, compactAdjacency);
+    }
+
+    /**
+     * @param compactAdjacency at true to store the neighbours of the nodes by label, see Nodes.LabelMap
+     */
+    public UndirectedValuedGraph(int[][] matrixVal, boolean compactAdjacency) {
     	super();
+    	this.compactAdjacency = compactAdjacency;
     	this.order = matrixVal.length;
         this.nodes = new ArrayList<>();
         for (int i = 0; i < this.order; i++) {
@@ -35,11 +51,17 @@ public class UndirectedValuedGraph extends UndirectedGraph{
     //--------------------------------------------------
     
 
+    @Override
+    public boolean isValued() {
+        return true;
+    }
+
     /**
      * Adds the edge (from,to) with cost if it is not already present in the graph
      */
+    @Override
     public void addEdge(UndirectedNode x, UndirectedNode y, int cost) {
-    	// A completer
+    	super.addEdge(x, y, cost);
     }
     
     @Override
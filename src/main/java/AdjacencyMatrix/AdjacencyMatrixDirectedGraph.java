@@ -1,17 +1,21 @@
 package AdjacencyMatrix;
 
 import Abstraction.AbstractMatrixGraph;
+import Collection.BitMatrix;
 import GraphAlgorithms.GraphTools;
 import Nodes.AbstractNode;
 import Nodes.DirectedNode;
 import Abstraction.IDirectedGraph;
+import Abstraction.WeightedArcConsumer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * This class represents the directed graphs structured by an adjacency matrix.
- * It is possible to have simple and multiple graph
+ * It is possible to have simple and multiple graph.
+ * A simple graph can be packed: each row is then stored as a long[] with one bit per cell.
  */
 public class AdjacencyMatrixDirectedGraph extends AbstractMatrixGraph<DirectedNode> implements IDirectedGraph {
 
@@ -24,16 +28,49 @@ public class AdjacencyMatrixDirectedGraph extends AbstractMatrixGraph<DirectedNo
 	}
 
 	public AdjacencyMatrixDirectedGraph(int[][] M) {
+		this(M, false);
+	}
+
+	/**
+	 * @param packed at true to store the matrix with one bit per cell, M must then be a simple graph
+	 */
+	public AdjacencyMatrixDirectedGraph(int[][] M, boolean packed) {
 		this.order = M.length;
-		this.matrix = new int[this.order][this.order];
+		if(packed) {
+			this.bits = new BitMatrix(this.order);
+		} else {
+			this.matrix = new int[this.order][this.order];
+		}
 		for(int i = 0; i<this.order; i++){
 			for(int j = 0; j<this.order; j++){
-				this.matrix[i][j] = M[i][j];
+				if(packed) {
+					if(M[i][j] > 1) {
+						throw new IllegalArgumentException("a packed matrix only holds simple graphs");
+					}
+					if(M[i][j] == 1) {
+						this.bits.set(i, j);
+					}
+				} else {
+					this.matrix[i][j] = M[i][j];
+				}
 				this.m += M[i][j];
 			}
 		}
 	}
 
+	/**
+	 * Creates a graph of order nodes without arcs
+	 * @param packed at true to store the matrix with one bit per cell
+	 */
+	public AdjacencyMatrixDirectedGraph(int order, boolean packed) {
+		this.order = order;
+		if(packed) {
+			this.bits = new BitMatrix(order);
+		} else {
+			this.matrix = new int[order][order];
+		}
+	}
+
 	public AdjacencyMatrixDirectedGraph(IDirectedGraph g) {
 		this.order = g.getNbNodes();
 		this.m = g.getNbArcs();
@@ -51,6 +88,12 @@ public class AdjacencyMatrixDirectedGraph extends AbstractMatrixGraph<DirectedNo
 
 	public List<Integer> getSuccessors(DirectedNode x) {
 		List<Integer> v = new ArrayList<Integer>();
+		if(this.bits != null) {
+			for(int i = this.bits.nextSetBit(x.getLabel(), 0); i >= 0; i = this.bits.nextSetBit(x.getLabel(), i + 1)){
+				v.add(i);
+			}
+			return v;
+		}
 		for(int i =0;i<this.matrix[x.getLabel()].length;i++){
 			if(this.matrix[x.getLabel()][i]>0){
 				v.add(i);
@@ -61,6 +104,16 @@ public class AdjacencyMatrixDirectedGraph extends AbstractMatrixGraph<DirectedNo
 
 	public List<Integer> getPredecessors(DirectedNode x) {
 		List<Integer> v = new ArrayList<Integer>();
+		if(this.bits != null) {
+			int word = x.getLabel() >>> 6;
+			long mask = 1L << x.getLabel();
+			for(int i = 0; i<this.order; i++){
+				if((this.bits.getRow(i)[word] & mask) != 0){
+					v.add(i);
+				}
+			}
+			return v;
+		}
 		for(int i =0;i<this.matrix.length;i++){
 			if(this.matrix[i][x.getLabel()]>0){
 				v.add(i);
@@ -68,6 +121,122 @@ public class AdjacencyMatrixDirectedGraph extends AbstractMatrixGraph<DirectedNo
 		}
 		return v;
 	}
+
+	@Override
+	public boolean isArc(int from, int to) {
+		if(this.bits != null) {
+			return this.bits.get(from, to);
+		}
+		return this.matrix[from][to] > 0;
+	}
+
+	@Override
+	public int getOutDegree(int x) {
+		if(this.bits != null) {
+			return this.bits.rowCardinality(x);
+		}
+		int d = 0;
+		for(int c : this.matrix[x]) {
+			d += c;
+		}
+		return d;
+	}
+
+	@Override
+	public int getInDegree(int x) {
+		int d = 0;
+		if(this.bits != null) {
+			int word = x >>> 6;
+			long mask = 1L << x;
+			for(int i = 0; i<this.order; i++){
+				if((this.bits.getRow(i)[word] & mask) != 0){
+					d++;
+				}
+			}
+			return d;
+		}
+		for(int i = 0; i<this.order; i++){
+			d += this.matrix[i][x];
+		}
+		return d;
+	}
+
+	/**
+	 * Scans the row of x, a cell holding c arcs giving c calls
+	 */
+	@Override
+	public void forEachSuccessor(int x, IntConsumer action) {
+		if(this.bits != null) {
+			for(int j = this.bits.nextSetBit(x, 0); j >= 0; j = this.bits.nextSetBit(x, j + 1)){
+				action.accept(j);
+			}
+			return;
+		}
+		int[] row = this.matrix[x];
+		for(int j = 0; j<this.order; j++){
+			for(int c = 0; c<row[j]; c++){
+				action.accept(j);
+			}
+		}
+	}
+
+	/**
+	 * Scans the column of x, a cell holding c arcs giving c calls
+	 */
+	@Override
+	public void forEachPredecessor(int x, IntConsumer action) {
+		if(this.bits != null) {
+			int word = x >>> 6;
+			long mask = 1L << x;
+			for(int i = 0; i<this.order; i++){
+				if((this.bits.getRow(i)[word] & mask) != 0){
+					action.accept(i);
+				}
+			}
+			return;
+		}
+		for(int i = 0; i<this.order; i++){
+			for(int c = 0; c<this.matrix[i][x]; c++){
+				action.accept(i);
+			}
+		}
+	}
+
+	@Override
+	public void forEachOutArc(int x, WeightedArcConsumer action) {
+		if(this.bits != null) {
+			for(int j = this.bits.nextSetBit(x, 0); j >= 0; j = this.bits.nextSetBit(x, j + 1)){
+				action.accept(j, 1);
+			}
+			return;
+		}
+		int[] row = this.matrix[x];
+		for(int j = 0; j<this.order; j++){
+			for(int c = 0; c<row[j]; c++){
+				action.accept(j, this.arcCost(x, j));
+			}
+		}
+	}
+
+	@Override
+	public void forEachInArc(int x, WeightedArcConsumer action) {
+		if(this.bits != null) {
+			this.forEachPredecessor(x, i -> action.accept(i, 1));
+			return;
+		}
+		for(int i = 0; i<this.order; i++){
+			for(int c = 0; c<this.matrix[i][x]; c++){
+				action.accept(i, this.arcCost(i, x));
+			}
+		}
+	}
+
+	/**
+	 * @return the cost of the existing arc (from,to), 1 as the graph is not valued
+	 */
+	protected int arcCost(int from, int to) {
+		return 1;
+	}
 	
 	
 	// ------------------------------------------------
@@ -78,6 +247,9 @@ public class AdjacencyMatrixDirectedGraph extends AbstractMatrixGraph<DirectedNo
 	public boolean isArc(DirectedNode from, DirectedNode to) {
 		int iFrom = from.getLabel();
 		int iTo = to.getLabel();
+		if(this.bits != null) {
+			return this.bits.get(iFrom, iTo);
+		}
 		return this.matrix[iFrom][iTo] > 0;
 	}
 
@@ -90,30 +262,49 @@ public class AdjacencyMatrixDirectedGraph extends AbstractMatrixGraph<DirectedNo
 			return;
 
 		int iFrom = from.getLabel();
-		int iTo = from.getLabel();
-		this.matrix[iFrom][iTo] --;
+		int iTo = to.getLabel();
+		if(this.bits != null) {
+			this.bits.clear(iFrom, iTo);
+		} else {
+			this.matrix[iFrom][iTo] --;
+		}
+		this.m--;
 	}
 
 	/**
-	 * Adds the arc (from,to). we allow multiple graph.
+	 * Adds the arc (from,to). we allow multiple graph, except in packed mode where an existing arc is left as is.
 	 */
 	@Override
 	public void addArc(DirectedNode from, DirectedNode to) {
 		int iFrom = from.getLabel();
-		int iTo = from.getLabel();
-		this.matrix[iFrom][iTo] ++;
+		int iTo = to.getLabel();
+		if(this.bits != null) {
+			if(this.bits.get(iFrom, iTo))
+				return;
+			this.bits.set(iFrom, iTo);
+		} else {
+			this.matrix[iFrom][iTo] ++;
+		}
+		this.m++;
 	}
 
 
 	/**
-	 * @return the adjacency matrix representation int[][] of the graph
+	 * @return the adjacency matrix representation int[][] of the graph, expanded from the bits in packed mode
 	 */
 	public int[][] toAdjacencyMatrix() {
-		return this.matrix;
+		return this.getMatrix();
 	}
 
 	@Override
 	public IDirectedGraph computeInverse() {
+		if(this.bits != null) {
+			AdjacencyMatrixDirectedGraph am = new AdjacencyMatrixDirectedGraph();
+			am.order = this.order;
+			am.m = this.m;
+			am.bits = this.bits.transpose();
+			return am;
+		}
 		AdjacencyMatrixDirectedGraph am = new AdjacencyMatrixDirectedGraph(this.matrix);
 		for(int i=0; i<this.order; i++) {
 			for(int j=i+1; j<this.order; j++) {
@@ -128,7 +319,7 @@ public class AdjacencyMatrixDirectedGraph extends AbstractMatrixGraph<DirectedNo
 	@Override
 	public String toString(){
 		StringBuilder s = new StringBuilder("Adjacency Matrix: \n");
-		for (int[] ints : matrix) {
+		for (int[] ints : this.getMatrix()) {
 			for (int anInt : ints) {
 				s.append(anInt).append(" ");
 			}
@@ -151,6 +342,9 @@ public class AdjacencyMatrixDirectedGraph extends AbstractMatrixGraph<DirectedNo
 		for (Integer integer : t2) {
 			System.out.print(integer + ", ");
 		}
+		System.out.println();
+		AdjacencyMatrixDirectedGraph packed = new AdjacencyMatrixDirectedGraph(matrix2, true);
+		System.out.println(packed.getSuccessors(new DirectedNode(1)) + " " + packed.getPredecessors(new DirectedNode(2)));
 		// A completer
 	}
 }
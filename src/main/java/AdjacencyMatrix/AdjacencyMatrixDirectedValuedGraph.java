@@ -16,6 +16,14 @@ public class AdjacencyMatrixDirectedValuedGraph extends AdjacencyMatrixDirectedG
 	// 				Constructors
 	//-------------------------------------------------- 
 
+	/**
+	 * Creates a graph of order nodes without arcs
+	 */
+	public AdjacencyMatrixDirectedValuedGraph(int order) {
+		super(order, false);
+		this.matrixCosts = new int[order][order];
+	}
+
 	public AdjacencyMatrixDirectedValuedGraph(int[][] mat, int[][] matrixVal) {
 		super();
 		this.order = mat.length;
@@ -43,6 +51,16 @@ public class AdjacencyMatrixDirectedValuedGraph extends AdjacencyMatrixDirectedG
 		return matrixCosts;
 	}
 
+	@Override
+	public boolean isValued() {
+		return true;
+	}
+
+	@Override
+	protected int arcCost(int from, int to) {
+		return this.matrixCosts[from][to];
+	}
+
 	// ------------------------------------------------
 	// 					Methods
 	// ------------------------------------------------	
@@ -53,15 +71,20 @@ public class AdjacencyMatrixDirectedValuedGraph extends AdjacencyMatrixDirectedG
 	@Override
 	public void removeArc(DirectedNode from, DirectedNode to) {
 		super.removeArc(from, to);
-		// A completer
+		if(!this.isArc(from, to)) {
+			this.matrixCosts[from.getLabel()][to.getLabel()] = 0;
+		}
 	}
 
 	/**
      * adds the arc (from,to,cost), we allow the multi-graph. If there is already one initial cost, we keep it.
      */
 	public void addArc(DirectedNode from, DirectedNode to, int cost ) {
+		boolean first = !this.isArc(from, to);
 		super.addArc(from,to);
-		// A completer
+		if(first) {
+			this.matrixCosts[from.getLabel()][to.getLabel()] = cost;
+		}
 	}
 	
 	public String toString() {
@@ -1,22 +1,33 @@
 package AdjacencyMatrix;
 
 import Abstraction.AbstractMatrixGraph;
+import Collection.BitMatrix;
 import GraphAlgorithms.GraphTools;
 import Nodes.AbstractNode;
 import Nodes.UndirectedNode;
 import Abstraction.IUndirectedGraph;
+import Abstraction.WeightedArcConsumer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntConsumer;
 import java.util.function.Function;
 
 /**
  * This class represents the undirected graphs structured by an adjacency matrix.
- * It is possible to have simple and multiple graph
+ * It is possible to have simple and multiple graph.
+ * A simple graph can be packed: each row is then stored as a long[] with one bit per cell.
+ * The matrix being symmetric, it can also be stored as its upper triangle, see MatrixStorage.
  */
 public class AdjacencyMatrixUndirectedGraph extends AbstractMatrixGraph<UndirectedNode> implements IUndirectedGraph {
-	
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	protected int[] triangle;	// The upper triangle of the matrix in TRIANGULAR storage, row by row
+
 	//--------------------------------------------------
 	// 				Constructors
 	//-------------------------------------------------- 
@@ -26,16 +37,59 @@ public class AdjacencyMatrixUndirectedGraph extends AbstractMatrixGraph<Undirect
 	}
 	
 	public AdjacencyMatrixUndirectedGraph(int[][] mat) {
-		this.order=mat.length;
-		this.matrix = new int[this.order][this.order];
+		this(mat, false);
+	}
+
+	/**
+	 * @param packed at true to store the matrix with one bit per cell, mat must then be a simple graph
+	 */
+	public AdjacencyMatrixUndirectedGraph(int[][] mat, boolean packed) {
+		this(mat, packed ? MatrixStorage.BITS : MatrixStorage.FULL);
+	}
+
+	/**
+	 * @param storage the way to store the matrix, with BITS mat must be a simple graph
+	 */
+	public AdjacencyMatrixUndirectedGraph(int[][] mat, MatrixStorage storage) {
+		this(mat.length, storage);
 		for(int i = 0; i<this.order; i++){
 			for(int j = i; j<this.order; j++){
-				this.matrix[i][j] = mat[i][j];
-				this.matrix[j][i] = mat[i][j];
+				if(storage == MatrixStorage.BITS && mat[i][j] > 1) {
+					throw new IllegalArgumentException("a packed matrix only holds simple graphs");
+				}
+				if(mat[i][j] != 0) {
+					this.setCount(i, j, mat[i][j]);
+				}
 				this.m += mat[i][j];
 			}
 		}	
 	}
+
+	/**
+	 * Creates a graph of order nodes without edges
+	 * @param packed at true to store the matrix with one bit per cell
+	 */
+	public AdjacencyMatrixUndirectedGraph(int order, boolean packed) {
+		this(order, packed ? MatrixStorage.BITS : MatrixStorage.FULL);
+	}
+
+	/**
+	 * Creates a graph of order nodes without edges
+	 * @param storage the way to store the matrix
+	 */
+	public AdjacencyMatrixUndirectedGraph(int order, MatrixStorage storage) {
+		this.order = order;
+		switch (storage) {
+			case BITS:
+				this.bits = new BitMatrix(order);
+				break;
+			case TRIANGULAR:
+				this.triangle = new int[triangleSize(order)];
+				break;
+			default:
+				this.matrix = new int[order][order];
+		}
+	}
 	
 	public AdjacencyMatrixUndirectedGraph(IUndirectedGraph g) {
 		this.order = g.getNbNodes(); 				
@@ -52,15 +106,119 @@ public class AdjacencyMatrixUndirectedGraph extends AbstractMatrixGraph<Undirect
 		return this.m;
 	}
 
+	/**
+	 * @return the way the matrix is stored
+	 */
+	public MatrixStorage getStorage() {
+		if(this.bits != null) {
+			return MatrixStorage.BITS;
+		}
+		return this.triangle != null ? MatrixStorage.TRIANGULAR : MatrixStorage.FULL;
+	}
+
+	/**
+	 * @return the number of edges between x and y
+	 */
+	public int getNbEdges(int x, int y) {
+		if(this.bits != null) {
+			return this.bits.get(x, y) ? 1 : 0;
+		}
+		if(this.triangle != null) {
+			return this.triangle[cell(x, y)];
+		}
+		return this.matrix[x][y];
+	}
+
+	/**
+	 * Returns the adjacency matrix of the graph, expanded from the bits or the triangle if the matrix is not FULL
+	 */
+	@Override
+	public int[][] getMatrix() {
+		if(this.triangle != null) {
+			int[][] mat = new int[this.order][this.order];
+			for(int i = 0; i<this.order; i++){
+				for(int j = i; j<this.order; j++){
+					mat[i][j] = this.triangle[cell(i, j)];
+					mat[j][i] = mat[i][j];
+				}
+			}
+			return mat;
+		}
+		return super.getMatrix();
+	}
+
 	public List<Integer> getNeighbours(AbstractNode x) {
 		List<Integer> l = new ArrayList<>();
-		for(int i = 0; i<matrix[x.getLabel()].length; i++){
-			if(matrix[x.getLabel()][i]>0){
+		if(this.bits != null) {
+			for(int i = this.bits.nextSetBit(x.getLabel(), 0); i >= 0; i = this.bits.nextSetBit(x.getLabel(), i + 1)){
+				l.add(i);
+			}
+			return l;
+		}
+		for(int i = 0; i<this.order; i++){
+			if(this.getNbEdges(x.getLabel(), i)>0){
 				l.add(i);
 			}
 		}
 		return l;
 	}
+
+	@Override
+	public boolean isEdge(int x, int y) {
+		return this.getNbEdges(x, y) != 0;
+	}
+
+	@Override
+	public int getDegree(int x) {
+		if(this.bits != null) {
+			return this.bits.rowCardinality(x);
+		}
+		int d = 0;
+		for(int y = 0; y<this.order; y++){
+			d += this.getNbEdges(x, y);
+		}
+		return d;
+	}
+
+	/**
+	 * Scans the row of x, a cell holding c edges giving c calls
+	 */
+	@Override
+	public void forEachNeighbour(int x, IntConsumer action) {
+		if(this.bits != null) {
+			for(int y = this.bits.nextSetBit(x, 0); y >= 0; y = this.bits.nextSetBit(x, y + 1)){
+				action.accept(y);
+			}
+			return;
+		}
+		for(int y = 0; y<this.order; y++){
+			for(int c = this.getNbEdges(x, y); c > 0; c--){
+				action.accept(y);
+			}
+		}
+	}
+
+	@Override
+	public void forEachEdge(int x, WeightedArcConsumer action) {
+		if(this.bits != null) {
+			for(int y = this.bits.nextSetBit(x, 0); y >= 0; y = this.bits.nextSetBit(x, y + 1)){
+				action.accept(y, 1);
+			}
+			return;
+		}
+		for(int y = 0; y<this.order; y++){
+			for(int c = this.getNbEdges(x, y); c > 0; c--){
+				action.accept(y, this.edgeCost(x, y));
+			}
+		}
+	}
+
+	/**
+	 * @return the cost of the existing edge (x,y), 1 as the graph is not valued
+	 */
+	protected int edgeCost(int x, int y) {
+		return 1;
+	}
 	
 	// ------------------------------------------------
 	// 					Methods 
@@ -68,7 +226,7 @@ public class AdjacencyMatrixUndirectedGraph extends AbstractMatrixGraph<Undirect
 	
 	@Override
 	public boolean isEdge(UndirectedNode x, UndirectedNode y) {
-		return this.matrix[x.getLabel()][y.getLabel()] != 0;
+		return this.getNbEdges(x.getLabel(), y.getLabel()) != 0;
 	}
 	
 	/**
@@ -81,33 +239,89 @@ public class AdjacencyMatrixUndirectedGraph extends AbstractMatrixGraph<Undirect
 
 		int iX = x.getLabel();
 		int iY = y.getLabel();
-		this.matrix[iX][iY]--;
-		this.matrix[iY][iX]--;
+		if(this.bits != null) {
+			this.bits.clear(iX, iY);
+			this.bits.clear(iY, iX);
+		} else if(this.triangle != null) {
+			this.triangle[cell(iX, iY)]--;
+		} else {
+			this.matrix[iX][iY]--;
+			this.matrix[iY][iX]--;
+		}
+		this.m--;
 	}
 
 	/**
-     * adds the edge (x,y), we allow the multi-graph.
+     * adds the edge (x,y), we allow the multi-graph, except in packed mode where an existing edge is left as is.
      */
 	@Override
 	public void addEdge(UndirectedNode x, UndirectedNode y) {
 		int iX = x.getLabel();
 		int iY = y.getLabel();
-		this.matrix[iX][iY]++;
-		this.matrix[iY][iX]++;
+		if(this.bits != null) {
+			if(this.bits.get(iX, iY))
+				return;
+			this.bits.set(iX, iY);
+			this.bits.set(iY, iX);
+		} else if(this.triangle != null) {
+			this.triangle[cell(iX, iY)]++;
+		} else {
+			this.matrix[iX][iY]++;
+			this.matrix[iY][iX]++;
+		}
+		this.m++;
+	}
+
+	/**
+	 * Sets the number of edges between i and j, without updating the number of edges of the graph
+	 */
+	private void setCount(int i, int j, int count) {
+		if(this.bits != null) {
+			this.bits.set(i, j);
+			this.bits.set(j, i);
+		} else if(this.triangle != null) {
+			this.triangle[cell(i, j)] = count;
+		} else {
+			this.matrix[i][j] = count;
+			this.matrix[j][i] = count;
+		}
+	}
+
+	/**
+	 * @return the index of the cell (i,j) in the upper triangle of a matrix of this order, in any order of i and j
+	 */
+	protected int cell(int i, int j) {
+		if(i > j) {
+			int tmp = i;
+			i = j;
+			j = tmp;
+		}
+		return (int) ((long) i * (2L * this.order - i + 1) / 2 + (j - i));
+	}
+
+	/**
+	 * @return the number of cells of the upper triangle, diagonal included, of a matrix of order n
+	 */
+	protected static int triangleSize(int n) {
+		long size = (long) n * (n + 1) / 2;
+		if(size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("the triangle of a matrix of order " + n + " exceeds an int[]");
+		}
+		return (int) size;
 	}
 
 	
 	/**
-     * @return the adjacency matrix representation int[][] of the graph
+     * @return the adjacency matrix representation int[][] of the graph, expanded if the matrix is not FULL
      */
 	public int[][] toAdjacencyMatrix() {
-		return this.matrix;
+		return this.getMatrix();
 	}
 	
 	@Override
 	public String toString() {
 		StringBuilder s = new StringBuilder("Adjacency Matrix: \n");
-		for (int[] ints : this.matrix) {
+		for (int[] ints : this.getMatrix()) {
 			for (int anInt : ints) {
 				s.append(anInt).append(" ");
 			}
@@ -133,6 +347,10 @@ public class AdjacencyMatrixUndirectedGraph extends AbstractMatrixGraph<Undirect
 		System.out.println(am);
 		am.removeEdge(new UndirectedNode(2), new UndirectedNode(5));
 		System.out.println(am);
+		AdjacencyMatrixUndirectedGraph packed = new AdjacencyMatrixUndirectedGraph(mat2, true);
+		System.out.println(packed.getNeighbours(new UndirectedNode(2)));
+		AdjacencyMatrixUndirectedGraph triangular = new AdjacencyMatrixUndirectedGraph(mat2, MatrixStorage.TRIANGULAR);
+		System.out.println(triangular.getNeighbours(new UndirectedNode(2)));
 		// A completer
 	}
 }
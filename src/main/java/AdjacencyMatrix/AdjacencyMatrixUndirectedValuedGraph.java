@@ -11,25 +11,48 @@ public class AdjacencyMatrixUndirectedValuedGraph extends AdjacencyMatrixUndirec
 	//-------------------------------------------------- 
 
 	private  int[][] matrixCosts;	// The graph with Costs
+	private  int[] triangleCosts;	// The upper triangle of the costs in TRIANGULAR storage
 
 	//--------------------------------------------------
 	// 				Constructors
 	//-------------------------------------------------- 
 
+	/**
+	 * Creates a graph of order nodes without edges
+	 * @param storage FULL or TRIANGULAR, used for both the matrix and the costs
+	 */
+	public AdjacencyMatrixUndirectedValuedGraph(int order, MatrixStorage storage) {
+		super(order, storage);
+		if(storage == MatrixStorage.BITS) {
+			throw new IllegalArgumentException("a valued graph cannot be stored with BITS");
+		}
+		if(storage == MatrixStorage.TRIANGULAR) {
+			this.triangleCosts = new int[triangleSize(order)];
+		} else {
+			this.matrixCosts = new int[order][order];
+		}
+	}
+
 	public AdjacencyMatrixUndirectedValuedGraph(int[][] mat, int[][] matrixVal) {
-		super();
-		this.order = mat.length;
-		this.matrix = new int[this.order][this.order];
-		this.matrixCosts = new int[this.order][this.order];
+		this(mat, matrixVal, MatrixStorage.FULL);
+	}
+
+	/**
+	 * @param storage FULL or TRIANGULAR, used for both the matrix and the costs
+	 */
+	public AdjacencyMatrixUndirectedValuedGraph(int[][] mat, int[][] matrixVal, MatrixStorage storage) {
+		super(mat, storage);
+		if(storage == MatrixStorage.BITS) {
+			throw new IllegalArgumentException("a valued graph cannot be stored with BITS");
+		}
+		if(storage == MatrixStorage.TRIANGULAR) {
+			this.triangleCosts = new int[triangleSize(this.order)];
+		} else {
+			this.matrixCosts = new int[this.order][this.order];
+		}
 		for(int i =0;i<this.order;i++){
 			for(int j=i;j<this.order;j++){
-				int val = mat[i][j];
-				int cost = matrixVal[i][j]; 
-				this.matrix[i][j] = val;
-				this.matrix[j][i] = val;
-				this.matrixCosts[i][j] = cost;
-				this.matrixCosts[j][i] = cost; 
-				this.m += val;					
+				this.setCost(i, j, matrixVal[i][j]);
 			}
 		}
 	}
@@ -40,12 +63,39 @@ public class AdjacencyMatrixUndirectedValuedGraph extends AdjacencyMatrixUndirec
 	//--------------------------------------------------
 
 	/**
-	 * @return the matrix with costs of the graph
+	 * @return the matrix with costs of the graph, expanded from the triangle in TRIANGULAR storage
  	 */
 	public int[][] getMatrixCosts() {
+		if(this.triangleCosts != null) {
+			int[][] costs = new int[this.order][this.order];
+			for(int i = 0; i<this.order; i++){
+				for(int j = i; j<this.order; j++){
+					costs[i][j] = this.triangleCosts[cell(i, j)];
+					costs[j][i] = costs[i][j];
+				}
+			}
+			return costs;
+		}
 		return matrixCosts;
 	}
 
+	/**
+	 * @return the cost of the edges between x and y, 0 if there is none
+	 */
+	public int getCost(int x, int y) {
+		return this.triangleCosts != null ? this.triangleCosts[cell(x, y)] : this.matrixCosts[x][y];
+	}
+
+	@Override
+	public boolean isValued() {
+		return true;
+	}
+
+	@Override
+	protected int edgeCost(int x, int y) {
+		return this.getCost(x, y);
+	}
+
 	// ------------------------------------------------
 	// 					Methods 
 	// ------------------------------------------------	
@@ -56,22 +106,25 @@ public class AdjacencyMatrixUndirectedValuedGraph extends AdjacencyMatrixUndirec
 	@Override
 	public void removeEdge(UndirectedNode x, UndirectedNode y) {
 		super.removeEdge(x, y);
-		// A completer
+		if(!this.isEdge(x, y)){
+			this.setCost(x.getLabel(), y.getLabel(), 0);
+		}
 	}
 
 	/**
      * adds the edge (x,y,cost), we allow the multi-graph. If there is already one initial cost, we keep it.
      */
 	public void addEdge(UndirectedNode x, UndirectedNode y, int cost ) {
+		boolean first = !this.isEdge(x, y);
 		super.addEdge(x,y);
-		if(this.matrixCosts[x.getLabel()][y.getLabel()] != 0){
-			this.setNodeCost(x, y, 0);
+		if(first){
+			this.setCost(x.getLabel(), y.getLabel(), cost);
 		}
 	}
 	
 	public String toString() {
 		StringBuilder s = new StringBuilder(super.toString() + "\n Matrix of Costs: \n");
-		for (int[] matrixCost : this.matrixCosts) {
+		for (int[] matrixCost : this.getMatrixCosts()) {
 			for (int i : matrixCost) {
 				s.append(i).append(" ");
 			}
@@ -81,9 +134,13 @@ public class AdjacencyMatrixUndirectedValuedGraph extends AdjacencyMatrixUndirec
 		return s.toString();
 	}
 
-	private void setNodeCost(UndirectedNode x, UndirectedNode y, int cost) {
-		this.matrixCosts[x.getLabel()][y.getLabel()] = cost;
-		this.matrixCosts[y.getLabel()][x.getLabel()] = cost;
+	private void setCost(int x, int y, int cost) {
+		if(this.triangleCosts != null) {
+			this.triangleCosts[cell(x, y)] = cost;
+		} else {
+			this.matrixCosts[x][y] = cost;
+			this.matrixCosts[y][x] = cost;
+		}
 	}
 	
 	
@@ -93,6 +150,8 @@ public class AdjacencyMatrixUndirectedValuedGraph extends AdjacencyMatrixUndirec
 		GraphTools.afficherMatrix(matrix);
 		AdjacencyMatrixUndirectedValuedGraph am = new AdjacencyMatrixUndirectedValuedGraph(matrix, matrixValued);
 		System.out.println(am);
+		AdjacencyMatrixUndirectedValuedGraph triangular = new AdjacencyMatrixUndirectedValuedGraph(matrix, matrixValued, MatrixStorage.TRIANGULAR);
+		System.out.println(triangular);
 		// A completer
 	}
 
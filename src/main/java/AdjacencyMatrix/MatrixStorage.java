@@ -0,0 +1,13 @@
+package AdjacencyMatrix;
+
+/**
+ * The ways an undirected adjacency matrix graph can store its matrix
+ */
+public enum MatrixStorage {
+	/** a full int[][] matrix, both cells (i,j) and (j,i) are written */
+	FULL,
+	/** one bit per cell, for simple graphs only, see Collection.BitMatrix */
+	BITS,
+	/** the upper triangle, diagonal included, in a single int[], one cell per edge */
+	TRIANGULAR
+}
@@ -0,0 +1,138 @@
+package Collection;
+
+/**
+ * This class represents a square boolean matrix where each row is packed in a long[],
+ * one bit per cell. It is the storage of the packed mode of the adjacency matrix graphs.
+ */
+public class BitMatrix {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final int order;
+	private final long[][] rows;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public BitMatrix(int order) {
+		this.order = order;
+		this.rows = new long[order][(order + 63) >>> 6];
+	}
+
+	/**
+	 * Packs the non null cells of mat
+	 */
+	public BitMatrix(int[][] mat) {
+		this(mat.length);
+		for (int i = 0; i < order; i++) {
+			for (int j = 0; j < order; j++) {
+				if (mat[i][j] != 0) {
+					this.set(i, j);
+				}
+			}
+		}
+	}
+
+	//--------------------------------------------------
+	// 					Accessors
+	//--------------------------------------------------
+
+	public int getOrder() {
+		return order;
+	}
+
+	/**
+	 * @return the words of row i, bit j%64 of word j/64 is the cell (i,j)
+	 */
+	public long[] getRow(int i) {
+		return rows[i];
+	}
+
+	public boolean get(int i, int j) {
+		return (rows[i][j >>> 6] & (1L << j)) != 0;
+	}
+
+	public void set(int i, int j) {
+		rows[i][j >>> 6] |= 1L << j;
+	}
+
+	public void clear(int i, int j) {
+		rows[i][j >>> 6] &= ~(1L << j);
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * @return the first column j >= from such that (i,j) is set, or -1 if there is none
+	 */
+	public int nextSetBit(int i, int from) {
+		if (from >= order) {
+			return -1;
+		}
+		long[] row = rows[i];
+		int w = from >>> 6;
+		long word = row[w] & (-1L << from);
+		while (true) {
+			if (word != 0) {
+				return (w << 6) + Long.numberOfTrailingZeros(word);
+			}
+			if (++w == row.length) {
+				return -1;
+			}
+			word = row[w];
+		}
+	}
+
+	/**
+	 * @return the number of set cells in row i
+	 */
+	public int rowCardinality(int i) {
+		int c = 0;
+		for (long word : rows[i]) {
+			c += Long.bitCount(word);
+		}
+		return c;
+	}
+
+	/**
+	 * @return the number of set cells in the matrix
+	 */
+	public int cardinality() {
+		int c = 0;
+		for (int i = 0; i < order; i++) {
+			c += rowCardinality(i);
+		}
+		return c;
+	}
+
+	/**
+	 * @return a new matrix with rows and columns swapped
+	 */
+	public BitMatrix transpose() {
+		BitMatrix t = new BitMatrix(order);
+		for (int i = 0; i < order; i++) {
+			for (int j = nextSetBit(i, 0); j >= 0; j = nextSetBit(i, j + 1)) {
+				t.set(j, i);
+			}
+		}
+		return t;
+	}
+
+	/**
+	 * @return the int[][] matrix with 1 for set cells, 0 otherwise
+	 */
+	public int[][] toMatrix() {
+		int[][] mat = new int[order][order];
+		for (int i = 0; i < order; i++) {
+			for (int j = nextSetBit(i, 0); j >= 0; j = nextSetBit(i, j + 1)) {
+				mat[i][j] = 1;
+			}
+		}
+		return mat;
+	}
+}
@@ -0,0 +1,132 @@
+package Collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A dictionary between external long ids and the dense labels 0..n-1 used by every graph implementation.
+ * Ids get the next free label the first time they are interned. The id to label direction is a
+ * LongIntHashMap, the label to id direction a long[], so nothing is boxed.
+ */
+public class IdDictionary {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final LongIntHashMap labels;
+    private long[] ids;
+    private int size;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    public IdDictionary() {
+        this(16);
+    }
+
+    public IdDictionary(int expectedSize) {
+        this.labels = new LongIntHashMap(expectedSize);
+        this.ids = new long[Math.max(4, expectedSize)];
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    /**
+     * @return the number of interned ids, which is the order of a graph using this dictionary
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long id) {
+        return labels.containsKey(id);
+    }
+
+    /**
+     * @return the label of id, or -1 if it was never interned
+     */
+    public int labelOf(long id) {
+        return labels.get(id, -1);
+    }
+
+    /**
+     * @return the label of id, which must have been interned
+     */
+    public int requireLabel(long id) {
+        int label = labels.get(id, -1);
+        if (label < 0) {
+            throw new NoSuchElementException("unknown id " + id);
+        }
+        return label;
+    }
+
+    /**
+     * @return the external id of a label
+     */
+    public long idOf(int label) {
+        if (label < 0 || label >= size) {
+            throw new IndexOutOfBoundsException("label " + label + " is out of [0," + size + ")");
+        }
+        return ids[label];
+    }
+
+    /**
+     * @return the external ids of all the labels, indexed by label
+     */
+    public long[] getIds() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * @return the label of id, a new one if id was not yet interned
+     */
+    public int intern(long id) {
+        int label = labels.putIfAbsent(id, size);
+        if (label == size) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[size++] = id;
+        }
+        return label;
+    }
+
+    /**
+     * @return the labels of ids, interning the new ones in order
+     */
+    public int[] intern(long[] ids) {
+        int[] res = new int[ids.length];
+        for (int k = 0; k < ids.length; k++) {
+            res[k] = intern(ids[k]);
+        }
+        return res;
+    }
+
+    /**
+     * @return the external ids of labels
+     */
+    public long[] toIds(int[] labels) {
+        long[] res = new long[labels.length];
+        for (int k = 0; k < labels.length; k++) {
+            res[k] = idOf(labels[k]);
+        }
+        return res;
+    }
+
+    public static void main(String[] args) {
+        IdDictionary dict = new IdDictionary();
+        int[] src = dict.intern(new long[]{9_000_000_001L, 9_000_000_001L, 42L, -7L});
+        int[] dst = dict.intern(new long[]{42L, -7L, -7L, 9_000_000_001L});
+        System.out.println(Arrays.toString(src) + " -> " + Arrays.toString(dst));
+        System.out.println(dict.requireLabel(-7L) + " " + dict.idOf(0) + " " + dict.labelOf(5L));
+        System.out.println(Arrays.toString(dict.getIds()));
+    }
+}
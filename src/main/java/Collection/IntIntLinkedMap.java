@@ -0,0 +1,231 @@
+package Collection;
+
+import java.util.Arrays;
+
+/**
+ * A map from int keys to int values without boxing, iterated in insertion order.
+ * Entries are kept in two dense arrays in insertion order, and an open-addressing table with
+ * linear probing indexes them by key. Keys must be non negative, a removed entry leaves a hole
+ * in the dense arrays which is reclaimed when the map grows.
+ * Iteration goes through positions: for (int p = map.next(0); p >= 0; p = map.next(p + 1)).
+ */
+public class IntIntLinkedMap {
+
+    private static final int REMOVED = -1;
+    private static final int[] EMPTY = new int[0];
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private int[] keys;     // keys in insertion order, REMOVED for holes
+    private int[] values;   // values in insertion order
+    private int[] table;    // position + 1 of the entry of each slot, 0 for a free slot
+    private int end;        // number of used positions in keys/values, holes included
+    private int size;       // number of entries
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    public IntIntLinkedMap() {
+        this.keys = EMPTY;
+        this.values = EMPTY;
+        this.table = EMPTY;
+    }
+
+    public IntIntLinkedMap(int expectedSize) {
+        this();
+        if (expectedSize > 0) {
+            this.allocate(expectedSize);
+        }
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @return the value of key, or defaultValue if the key is absent
+     */
+    public int get(int key, int defaultValue) {
+        int p = indexOf(key);
+        return p >= 0 ? values[p] : defaultValue;
+    }
+
+    /**
+     * @return the position of key in insertion order (holes included), or -1 if the key is absent
+     */
+    public int indexOf(int key) {
+        if (size == 0) {
+            return -1;
+        }
+        int mask = table.length - 1;
+        for (int s = slot(key, mask); table[s] != 0; s = (s + 1) & mask) {
+            int p = table[s] - 1;
+            if (keys[p] == key) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first position >= from holding an entry, or -1 if there is none
+     */
+    public int next(int from) {
+        for (int p = from; p < end; p++) {
+            if (keys[p] != REMOVED) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    public int keyAt(int position) {
+        return keys[position];
+    }
+
+    public int valueAt(int position) {
+        return values[position];
+    }
+
+    public void setValueAt(int position, int value) {
+        values[position] = value;
+    }
+
+    /**
+     * @return the keys in insertion order
+     */
+    public int[] keysArray() {
+        int[] res = new int[size];
+        int k = 0;
+        for (int p = next(0); p >= 0; p = next(p + 1)) {
+            res[k++] = keys[p];
+        }
+        return res;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * Associates value to key. An existing key keeps its place in the iteration order.
+     * @return true if the key was absent
+     */
+    public boolean put(int key, int value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("keys must be non negative: " + key);
+        }
+        int p = indexOf(key);
+        if (p >= 0) {
+            values[p] = value;
+            return false;
+        }
+        if (end == keys.length) {
+            this.allocate(Math.max(4, size * 2));
+        }
+        keys[end] = key;
+        values[end] = value;
+        this.insertSlot(key, end);
+        end++;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return true if the key was present
+     */
+    public boolean remove(int key) {
+        if (size == 0) {
+            return false;
+        }
+        int mask = table.length - 1;
+        int s = slot(key, mask);
+        while (table[s] != 0 && keys[table[s] - 1] != key) {
+            s = (s + 1) & mask;
+        }
+        if (table[s] == 0) {
+            return false;
+        }
+        keys[table[s] - 1] = REMOVED;
+        size--;
+        // backward shift deletion keeps the probe sequences without tombstones
+        int free = s;
+        for (int t = (free + 1) & mask; table[t] != 0; t = (t + 1) & mask) {
+            int home = slot(keys[table[t] - 1], mask);
+            if (((t - home) & mask) >= ((t - free) & mask)) {
+                table[free] = table[t];
+                free = t;
+            }
+        }
+        table[free] = 0;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        end = 0;
+        size = 0;
+    }
+
+    /**
+     * Resizes the dense arrays to hold capacity entries, dropping the holes, and rebuilds the table
+     */
+    private void allocate(int capacity) {
+        int[] newKeys = new int[capacity];
+        int[] newValues = new int[capacity];
+        int k = 0;
+        for (int p = next(0); p >= 0; p = next(p + 1)) {
+            newKeys[k] = keys[p];
+            newValues[k] = values[p];
+            k++;
+        }
+        this.keys = newKeys;
+        this.values = newValues;
+        this.end = k;
+        this.table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        for (int p = 0; p < end; p++) {
+            this.insertSlot(keys[p], p);
+        }
+    }
+
+    private void insertSlot(int key, int position) {
+        int mask = table.length - 1;
+        int s = slot(key, mask);
+        while (table[s] != 0) {
+            s = (s + 1) & mask;
+        }
+        table[s] = position + 1;
+    }
+
+    private static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("{");
+        for (int p = next(0); p >= 0; p = next(p + 1)) {
+            if (s.length() > 1) {
+                s.append(", ");
+            }
+            s.append(keys[p]).append("=").append(values[p]);
+        }
+        return s.append("}").toString();
+    }
+}
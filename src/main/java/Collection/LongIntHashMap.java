@@ -0,0 +1,150 @@
+package Collection;
+
+import java.util.Arrays;
+
+/**
+ * A map from long keys to int values without boxing, by open addressing with linear probing.
+ * The key 0 marks a free slot in the table, so its entry is kept apart. Entries are never removed one by one.
+ */
+public class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private long[] keys;
+    private int[] values;
+    private int size;           // number of entries in the table, the key 0 excluded
+    private boolean hasZero;
+    private int zeroValue;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public int size() {
+        return hasZero ? size + 1 : size;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZero;
+        }
+        return keys[find(key)] == key;
+    }
+
+    /**
+     * @return the value of key, or defaultValue if the key is absent
+     */
+    public int get(long key, int defaultValue) {
+        if (key == 0) {
+            return hasZero ? zeroValue : defaultValue;
+        }
+        int s = find(key);
+        return keys[s] == key ? values[s] : defaultValue;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * Associates value to key, replacing the previous value if any
+     */
+    public void put(long key, int value) {
+        if (key == 0) {
+            hasZero = true;
+            zeroValue = value;
+            return;
+        }
+        int s = find(key);
+        values[s] = value;
+        if (keys[s] != key) {
+            keys[s] = key;
+            if (++size > keys.length * LOAD_FACTOR) {
+                this.rehash(keys.length * 2);
+            }
+        }
+    }
+
+    /**
+     * Associates value to key only if the key is absent
+     * @return the value of key after the call
+     */
+    public int putIfAbsent(long key, int value) {
+        if (key == 0) {
+            if (!hasZero) {
+                hasZero = true;
+                zeroValue = value;
+            }
+            return zeroValue;
+        }
+        int s = find(key);
+        if (keys[s] == key) {
+            return values[s];
+        }
+        keys[s] = key;
+        values[s] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            this.rehash(keys.length * 2);
+        }
+        return value;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasZero = false;
+    }
+
+    /**
+     * @return the slot of key, or the free slot where it would be inserted
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int s = slot(key, mask);
+        while (keys[s] != 0 && keys[s] != key) {
+            s = (s + 1) & mask;
+        }
+        return s;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        int mask = capacity - 1;
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldKeys[k] != 0) {
+                int s = slot(oldKeys[k], mask);
+                while (keys[s] != 0) {
+                    s = (s + 1) & mask;
+                }
+                keys[s] = oldKeys[k];
+                values[s] = oldValues[k];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,96 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+
+/**
+ * The breadth first search tree of a source: for each node its parent and its depth, -1 if it is not reached.
+ * The parent of the source is the source itself.
+ */
+public class BfsResult {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int source;
+    private final int[] parents;
+    private final int[] depths;
+    private final int nbReached;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    public BfsResult(int source, int[] parents, int[] depths, int nbReached) {
+        this.source = source;
+        this.parents = parents;
+        this.depths = depths;
+        this.nbReached = nbReached;
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return the parent of each node, not a copy
+     */
+    public int[] getParents() {
+        return parents;
+    }
+
+    /**
+     * @return the depth of each node, not a copy
+     */
+    public int[] getDepths() {
+        return depths;
+    }
+
+    public int getParent(int x) {
+        return parents[x];
+    }
+
+    public int getDepth(int x) {
+        return depths[x];
+    }
+
+    public boolean isReached(int x) {
+        return depths[x] >= 0;
+    }
+
+    /**
+     * @return the number of nodes reached, the source included
+     */
+    public int getNbReached() {
+        return nbReached;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * @return the nodes of the path from the source to x in the tree, or an empty array if x is not reached
+     */
+    public int[] getPath(int x) {
+        if (!isReached(x)) {
+            return new int[0];
+        }
+        int[] path = new int[depths[x] + 1];
+        for (int k = depths[x]; k >= 0; k--) {
+            path[k] = x;
+            x = parents[x];
+        }
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "BFS from " + source + ", " + nbReached + " nodes reached\nparents: " + Arrays.toString(parents)
+                + "\ndepths: " + Arrays.toString(depths);
+    }
+}
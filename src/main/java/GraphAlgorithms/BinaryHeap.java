@@ -1,5 +1,6 @@
 package GraphAlgorithms;
 
+import java.util.Arrays;
 
 public class BinaryHeap {
 
@@ -14,12 +15,12 @@ public class BinaryHeap {
         this.pos = 0;
     }
 
+    /**
+     * Doubles the capacity, so that n insertions cost O(n) copies overall, the new slots holding Integer.MAX_VALUE
+     */
     public void resize() {
-        int[] tab = new int[this.nodes.length + 32];
-        for (int i = 0; i < nodes.length; i++) {
-            tab[i] = Integer.MAX_VALUE;
-        }
-        System.arraycopy(this.nodes, 0, tab, 0, this.nodes.length);
+        int[] tab = Arrays.copyOf(this.nodes, Math.max(32, this.nodes.length * 2));
+        Arrays.fill(tab, this.nodes.length, tab.length, Integer.MAX_VALUE);
         this.nodes = tab;
     }
 
@@ -53,6 +54,9 @@ public class BinaryHeap {
         int best;
         while (!isLeaf(father)) {
     	    best = getBestChildPos(father);
+    	    if (this.nodes[father] <= this.nodes[best]) {
+    	        break;
+    	    }
     	    swap(father, best);
     	    father = best;
         }
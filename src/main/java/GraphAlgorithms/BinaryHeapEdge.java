@@ -58,6 +58,9 @@ public class BinaryHeapEdge {
 		int best;
 		while (!isLeaf(father)) {
 			best = getBestChildPos(father);
+			if (this.binh.get(father).getThird() <= this.binh.get(best).getThird()) {
+				break;
+			}
 			swap(father, best);
 			father = best;
 		}
@@ -96,10 +99,8 @@ public class BinaryHeapEdge {
 	 * @param father an index of the list edges
 	 * @param child an index of the list edges
 	 */
-    private void swap(int father, int child) {         
-    	Triple<UndirectedNode,UndirectedNode,Integer> temp = new Triple<>(binh.get(father).getFirst(), binh.get(father).getSecond(), binh.get(father).getThird());
-    	binh.get(father).setTriple(binh.get(child));
-    	binh.get(child).setTriple(temp);
+    private void swap(int father, int child) {
+    	binh.set(father, binh.set(child, binh.get(father)));
     }
 
     
@@ -0,0 +1,166 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+
+/**
+ * Dial's monotone priority queue of nodes for integer costs in [0, C]. While a shortest paths search settles
+ * nodes at distance d, every queued priority lies in [d, d + C], so C + 1 circular buckets indexed by priority
+ * modulo C + 1 hold all of them. Each bucket is a doubly linked list threaded through per node arrays, so
+ * insertion and decrease are O(1), and polling scans forward to the next non empty bucket: a search costs
+ * O(m + D) where D ≤ n·C is the largest distance. The priorities must never go below the last polled one nor
+ * above it by more than C, the first priority inserted after a clear setting the base of the window.
+ */
+public class BucketQueue implements NodePriorityQueue {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int maxCost;
+    private final int[] heads;          // first node of each bucket, -1 if it is empty
+    private final int[] next;           // next node in the bucket of each node, -1 at the end
+    private final int[] previous;       // previous node in the bucket, -1 at the head
+    private final long[] priorities;    // priority of each node, -1 if it is not in the queue
+    private long current = -1;          // no node of the queue has a lower priority, -1 before the first insertion
+    private int cursor;                 // the bucket of current
+    private int size;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * @param capacity the number of nodes, which are in [0, capacity)
+     * @param maxCost the largest cost C of an arc
+     */
+    public BucketQueue(int capacity, int maxCost) {
+        if (maxCost < 0 || maxCost == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("the largest cost must be in [0," + (Integer.MAX_VALUE - 1) + "]");
+        }
+        this.maxCost = maxCost;
+        this.heads = new int[maxCost + 1];
+        this.next = new int[capacity];
+        this.previous = new int[capacity];
+        this.priorities = new long[capacity];
+        Arrays.fill(heads, -1);
+        Arrays.fill(priorities, -1);
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return priorities[node] >= 0;
+    }
+
+    @Override
+    public long peekPriority() {
+        this.advance();
+        return current;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    @Override
+    public boolean insertOrDecrease(int node, long priority) {
+        if (priority < 0) {
+            throw new IllegalArgumentException("negative priority " + priority);
+        }
+        long old = priorities[node];
+        if (old >= 0 && priority >= old) {
+            return false;
+        }
+        if (current < 0) {
+            current = priority;
+            cursor = (int) (priority % heads.length);
+        } else if (priority < current || priority - current > maxCost) {
+            throw new IllegalArgumentException("priority " + priority + " is out of [" + current + ","
+                    + (current + maxCost) + "], is a cost over " + maxCost + "?");
+        }
+        if (old >= 0) {
+            this.unlink(node);
+        } else {
+            size++;
+        }
+        priorities[node] = priority;
+        int bucket = (int) (priority % heads.length);
+        next[node] = heads[bucket];
+        previous[node] = -1;
+        if (heads[bucket] >= 0) {
+            previous[heads[bucket]] = node;
+        }
+        heads[bucket] = node;
+        return true;
+    }
+
+    /**
+     * Removes a node of minimal priority, the last inserted one among equal priorities
+     */
+    @Override
+    public int poll() {
+        this.advance();
+        int node = heads[cursor];
+        this.unlink(node);
+        priorities[node] = -1;
+        size--;
+        return node;
+    }
+
+    /**
+     * Removes every node, in O(C + size)
+     */
+    @Override
+    public void clear() {
+        for (int b = 0; b < heads.length; b++) {
+            for (int x = heads[b]; x >= 0; x = next[x]) {
+                priorities[x] = -1;
+            }
+            heads[b] = -1;
+        }
+        size = 0;
+        current = -1;
+    }
+
+    /**
+     * Moves the cursor to the first non empty bucket
+     */
+    private void advance() {
+        if (size == 0) {
+            throw new IllegalStateException("the queue is empty");
+        }
+        while (heads[cursor] < 0) {
+            current++;
+            if (++cursor == heads.length) {
+                cursor = 0;
+            }
+        }
+    }
+
+    private void unlink(int node) {
+        if (previous[node] >= 0) {
+            next[previous[node]] = next[node];
+        } else {
+            heads[(int) (priorities[node] % heads.length)] = next[node];
+        }
+        if (next[node] >= 0) {
+            previous[next[node]] = previous[node];
+        }
+    }
+}
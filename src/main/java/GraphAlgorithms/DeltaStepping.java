@@ -0,0 +1,632 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.IUndirectedGraph;
+import AdjacencyList.CsrDirectedGraph;
+import AdjacencyList.DirectedValuedGraph;
+import Storage.PropertyStore;
+import Storage.PropertyStore.IntColumn;
+
+/**
+ * Meyer and Sanders' delta-stepping single source shortest paths on a ForkJoinPool, for costs which must not
+ * be negative, a graph which is not valued costing 1 per arc. The tentative distances are grouped in buckets
+ * of width delta, kept in ceil(C / delta) + 2 circular slots, C being the largest cost. The arcs of each node are
+ * split once into light arcs, of cost at most delta, and heavy ones. The nodes of the lowest bucket relax their
+ * light arcs in parallel, in chunks of the frontier, again and again while some distance falls into the bucket;
+ * the heavy arcs of all the nodes it settled are relaxed once afterwards. A distance is lowered with a
+ * compare-and-set on an AtomicLongArray, so the distances are exactly those of Dijkstra whatever the scheduling.
+ * The predecessor of a node is its smallest in-neighbour on a shortest path, so it does not depend on the
+ * scheduling either (with zero costs, the first one met by a breadth first search of the tight arcs, which
+ * would otherwise close cycles). A small delta does little useless work but many phases, a large one the reverse.
+ * The arrays are kept from one search to the next and only the nodes reached by the previous search are reset,
+ * so repeated searches of small regions of a large graph cost the size of the regions.
+ */
+public class DeltaStepping {
+
+    public static final long INFINITY = Long.MAX_VALUE;
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 10;
+    private static final int CHUNK = 256;
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final CsrDirectedGraph graph;
+    private final ForkJoinPool pool;
+    private final int order;
+    private final int[] weights;        // the cost of each arc, indexed like graph.getTargets(), null for 1
+    private final int[] predWeights;    // the same costs indexed like graph.getSources()
+    private final int minCost;
+    private final int maxCost;
+    private int sequentialThreshold = DEFAULT_SEQUENTIAL_THRESHOLD;
+    private int delta;
+    private int[] split;        // the light arcs of u are arcs[offsets[u]..split[u]-1], the heavy ones the rest
+    private int[] arcs;         // the targets of the graph, light arcs first for each node
+    private int[] costs;        // the cost of each arc of arcs
+
+    // state of the last search
+    private int source = -1;
+    private final long[] distances;
+    private final int[] predecessors;
+    private final int[] touched;        // the nodes put in a bucket, to reset before the next search
+    private int nbTouched;
+    private int nbPhases;
+
+    // state of the search in progress
+    private final AtomicLongArray tentative;
+    private final long[] bucketOf;      // the bucket the node was last put in, -1 if none
+    private final int[] roundStamp;     // the last round whose frontier holds the node
+    private int round;
+    private final int[] settledStamp;   // the last bucket whose light phases settled the node
+    private int stamp;
+    private int[] settled = new int[16];
+    private int[] queue;                // the breadth first search of the tight arcs, allocated when first needed
+    private int[][] slots;              // bucket b is in slots[b % slots.length]
+    private int[] slotSizes;
+    private int pending;                // the entries in the slots, some of them stale
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * @param graph converted by CsrDirectedGraph.of
+     */
+    public DeltaStepping(IDirectedGraph graph, ForkJoinPool pool) {
+        this(CsrDirectedGraph.of(graph), pool);
+    }
+
+    /**
+     * @param graph converted by CsrDirectedGraph.of
+     */
+    public DeltaStepping(IUndirectedGraph graph, ForkJoinPool pool) {
+        this(CsrDirectedGraph.of(graph), pool);
+    }
+
+    /**
+     * @param costs the cost of each arc indexed by its position in graph.getTargets(), copied in the light and
+     * heavy arrays by setDelta
+     */
+    public DeltaStepping(CsrDirectedGraph graph, IntColumn costs, ForkJoinPool pool) {
+        this(graph, columnArray(graph, costs), pool);
+    }
+
+    private DeltaStepping(CsrDirectedGraph graph, ForkJoinPool pool) {
+        this(graph, graph.getWeights(), pool);
+    }
+
+    private DeltaStepping(CsrDirectedGraph graph, int[] weights, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        this.order = graph.getNbNodes();
+        this.weights = weights;
+        this.predWeights = weights == graph.getWeights() ? graph.getPredWeights() : inArcCosts(graph, weights);
+        int min = weights == null || weights.length == 0 ? 1 : Integer.MAX_VALUE;
+        int max = weights == null || weights.length == 0 ? 1 : 0;
+        if (weights != null) {
+            for (int k = 0; k < weights.length; k++) {
+                if (weights[k] < 0) {
+                    throw new IllegalArgumentException("negative cost " + weights[k] + " on arc " + k);
+                }
+                min = Math.min(min, weights[k]);
+                max = Math.max(max, weights[k]);
+            }
+        }
+        this.minCost = min;
+        this.maxCost = max;
+        this.distances = new long[order];
+        Arrays.fill(distances, INFINITY);
+        this.predecessors = new int[order];
+        Arrays.fill(predecessors, -1);
+        this.touched = new int[order];
+        this.tentative = new AtomicLongArray(order);
+        for (int x = 0; x < order; x++) {
+            tentative.set(x, INFINITY);
+        }
+        this.bucketOf = new long[order];
+        Arrays.fill(bucketOf, -1);
+        this.roundStamp = new int[order];
+        this.settledStamp = new int[order];
+        // about one light arc per node: delta = C / average degree
+        long m = graph.getNbArcs();
+        this.setDelta(m == 0 ? 1 : (int) Math.max(1, Math.min(Integer.MAX_VALUE, (long) max * order / m)));
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public int getDelta() {
+        return delta;
+    }
+
+    /**
+     * Sets the width of the buckets, splits the arcs again in O(n + m) and sizes the slots
+     * @param delta at least 1, the arcs costing at most delta being light
+     */
+    public void setDelta(int delta) {
+        if (delta < 1) {
+            throw new IllegalArgumentException("delta must be at least 1");
+        }
+        this.delta = delta;
+        int nbSlots = (int) Math.min(Integer.MAX_VALUE - 2, ((long) maxCost + delta - 1) / delta) + 2;
+        if (slots == null || slots.length != nbSlots) {
+            slots = new int[nbSlots][];
+            slotSizes = new int[nbSlots];
+            pending = 0;
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int m = graph.getNbArcs();
+        if (split == null) {
+            split = new int[order];
+            arcs = new int[m];
+            costs = new int[m];
+        }
+        for (int u = 0; u < order; u++) {
+            int light = offsets[u];
+            int heavy = offsets[u + 1];
+            for (int p = offsets[u]; p < offsets[u + 1]; p++) {
+                int w = weights == null ? 1 : weights[p];
+                int k = w <= delta ? light++ : --heavy;
+                arcs[k] = targets[p];
+                costs[k] = w;
+            }
+            split[u] = light;
+        }
+    }
+
+    public int getSequentialThreshold() {
+        return sequentialThreshold;
+    }
+
+    /**
+     * @param threshold at least 1, the frontiers smaller than it are relaxed sequentially, Integer.MAX_VALUE
+     * for a serial search
+     */
+    public void setSequentialThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("the sequential threshold must be at least 1");
+        }
+        this.sequentialThreshold = threshold;
+    }
+
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+    /**
+     * @return the source of the last search, -1 before any
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return the number of light or heavy relaxation rounds of the last search
+     */
+    public int getNbPhases() {
+        return nbPhases;
+    }
+
+    /**
+     * @return the distances of the last search, INFINITY for the nodes not reached. The array belongs to
+     * the engine and is overwritten by the next search.
+     */
+    public long[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * @return the predecessor of each node in the last search, the source being its own predecessor and -1
+     * marking the nodes not reached. The array belongs to the engine and is overwritten by the next search.
+     */
+    public int[] getPredecessors() {
+        return predecessors;
+    }
+
+    public long getDistance(int x) {
+        return distances[x];
+    }
+
+    /**
+     * @return the nodes from the source to x in the last search, empty if x is not reached
+     */
+    public int[] getPath(int x) {
+        if (distances[x] == INFINITY) {
+            return new int[0];
+        }
+        int length = 1;
+        for (int y = x; y != source; y = predecessors[y]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int k = length - 1; k >= 0; k--) {
+            path[k] = x;
+            x = predecessors[x];
+        }
+        return path;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * Computes the distances from source to every node, and the predecessors
+     * @return getDistances()
+     */
+    public long[] run(int source) {
+        if (source < 0 || source >= order) {
+            throw new IllegalArgumentException("source " + source + " is out of [0," + order + ")");
+        }
+        this.reset();
+        this.source = source;
+        nbPhases = 0;
+
+        tentative.set(source, 0);
+        touched[nbTouched++] = source;
+        this.push(source, 0);
+        for (long bucket = 0; pending > 0; bucket++) {
+            int slot = (int) (bucket % slots.length);
+            int[] entries = slots[slot];
+            int count = slotSizes[slot];
+            if (count == 0) {
+                continue;
+            }
+            slotSizes[slot] = 0;
+            pending -= count;
+            int[] frontier = new int[count];
+            int size = 0;
+            for (int k = 0; k < count; k++) {
+                if (bucketOf[entries[k]] == bucket) {
+                    frontier[size++] = entries[k];
+                }
+            }
+            frontier = Arrays.copyOf(frontier, size);
+            // light phases until no distance falls in the bucket, then one heavy phase over the settled nodes
+            if (stamp == Integer.MAX_VALUE) {
+                Arrays.fill(settledStamp, 0);
+                stamp = 0;
+            }
+            stamp++;
+            int nbSettled = 0;
+            while (frontier.length > 0) {
+                for (int u : frontier) {
+                    if (settledStamp[u] != stamp) {
+                        settledStamp[u] = stamp;
+                        if (nbSettled == settled.length) {
+                            settled = Arrays.copyOf(settled, nbSettled * 2);
+                        }
+                        settled[nbSettled++] = u;
+                    }
+                }
+                frontier = this.relax(frontier, frontier.length, false, bucket);
+            }
+            if (nbSettled > 0) {
+                this.relax(settled, nbSettled, true, bucket);
+            }
+        }
+
+        for (int k = 0; k < nbTouched; k++) {
+            distances[touched[k]] = tentative.get(touched[k]);
+        }
+        if (minCost > 0) {
+            this.smallestPredecessors();
+        } else {
+            this.tightBfsPredecessors();
+        }
+        return distances;
+    }
+
+    /**
+     * Resets the nodes touched by the previous search, and the slots if it did not complete
+     */
+    private void reset() {
+        for (int k = 0; k < nbTouched; k++) {
+            int x = touched[k];
+            tentative.set(x, INFINITY);
+            bucketOf[x] = -1;
+            distances[x] = INFINITY;
+            predecessors[x] = -1;
+        }
+        nbTouched = 0;
+        if (pending > 0) {
+            Arrays.fill(slotSizes, 0);
+            pending = 0;
+        }
+    }
+
+    /**
+     * Relaxes the light or the heavy arcs of nodes[0..size-1], in parallel if they are enough, then puts the
+     * nodes whose distance went down in their bucket
+     * @return the nodes whose distance went down into the current bucket, each once
+     */
+    private int[] relax(int[] nodes, int size, boolean heavy, long bucket) {
+        nbPhases++;
+        int[][] parts;
+        int[] sizes;
+        if (size < sequentialThreshold) {
+            parts = new int[1][];
+            sizes = new int[1];
+            this.relaxRange(nodes, 0, size, heavy, parts, sizes, 0);
+        } else {
+            int nbChunks = (size + CHUNK - 1) / CHUNK;
+            parts = new int[nbChunks][];
+            sizes = new int[nbChunks];
+            pool.invoke(new RelaxTask(nodes, size, 0, nbChunks, heavy, parts, sizes));
+        }
+        if (round == Integer.MAX_VALUE) {
+            Arrays.fill(roundStamp, 0);
+            round = 0;
+        }
+        round++;
+        int[] next = new int[16];
+        int nbNext = 0;
+        for (int c = 0; c < parts.length; c++) {
+            for (int k = 0; k < sizes[c]; k++) {
+                int v = parts[c][k];
+                if (bucketOf[v] < 0) {
+                    touched[nbTouched++] = v;
+                }
+                long b = tentative.get(v) / delta;
+                if (b == bucket) {
+                    bucketOf[v] = b;
+                    if (roundStamp[v] != round) {
+                        roundStamp[v] = round;
+                        if (nbNext == next.length) {
+                            next = Arrays.copyOf(next, nbNext * 2);
+                        }
+                        next[nbNext++] = v;
+                    }
+                } else if (b != bucketOf[v]) {
+                    this.push(v, b);
+                }
+            }
+        }
+        return Arrays.copyOf(next, nbNext);
+    }
+
+    /**
+     * Relaxes the arcs of nodes[from..to-1], keeping the nodes whose distance it lowered in parts[chunk]
+     */
+    private void relaxRange(int[] nodes, int from, int to, boolean heavy, int[][] parts, int[] sizes, int chunk) {
+        int[] offsets = graph.getOffsets();
+        int[] buffer = new int[16];
+        int size = 0;
+        for (int k = from; k < to; k++) {
+            int u = nodes[k];
+            long base = tentative.get(u);
+            int first = heavy ? split[u] : offsets[u];
+            int last = heavy ? offsets[u + 1] : split[u];
+            for (int p = first; p < last; p++) {
+                if (lower(tentative, arcs[p], base + costs[p])) {
+                    if (size == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, size * 2);
+                    }
+                    buffer[size++] = arcs[p];
+                }
+            }
+        }
+        parts[chunk] = buffer;
+        sizes[chunk] = size;
+    }
+
+    /**
+     * Sets the distance of v to d if it is lower
+     * @return true if this call lowered it
+     */
+    private static boolean lower(AtomicLongArray tentative, int v, long d) {
+        long current;
+        do {
+            current = tentative.get(v);
+            if (d >= current) {
+                return false;
+            }
+        } while (!tentative.compareAndSet(v, current, d));
+        return true;
+    }
+
+    private void push(int v, long bucket) {
+        bucketOf[v] = bucket;
+        int slot = (int) (bucket % slots.length);
+        if (slots[slot] == null) {
+            slots[slot] = new int[16];
+        } else if (slotSizes[slot] == slots[slot].length) {
+            slots[slot] = Arrays.copyOf(slots[slot], slotSizes[slot] * 2);
+        }
+        slots[slot][slotSizes[slot]++] = v;
+        pending++;
+    }
+
+    /**
+     * Sets the predecessor of each node reached to its smallest in-neighbour u with d(u) + cost(u,v) = d(v),
+     * computed in parallel
+     */
+    private void smallestPredecessors() {
+        pool.invoke(new PredecessorTask(0, nbTouched));
+        predecessors[source] = source;
+    }
+
+    private static int[] columnArray(CsrDirectedGraph graph, IntColumn costs) {
+        if (costs.size() != graph.getNbArcs()) {
+            throw new IllegalArgumentException("the column holds " + costs.size() + " costs for "
+                    + graph.getNbArcs() + " arcs");
+        }
+        return costs.getArray();
+    }
+
+    /**
+     * @return the costs of the arcs in the order of graph.getSources(): the rows of the predecessors are
+     * filled by scanning the rows of the successors in order, so a cursor per node finds them back
+     */
+    private static int[] inArcCosts(CsrDirectedGraph graph, int[] weights) {
+        if (weights == null) {
+            return null;
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] cursors = Arrays.copyOf(graph.getPredOffsets(), graph.getNbNodes());
+        int[] inCosts = new int[weights.length];
+        for (int u = 0; u < graph.getNbNodes(); u++) {
+            for (int p = offsets[u]; p < offsets[u + 1]; p++) {
+                inCosts[cursors[targets[p]]++] = weights[p];
+            }
+        }
+        return inCosts;
+    }
+
+    /**
+     * Sets the predecessors to the parents of a breadth first search of the arcs (u,v) with
+     * d(u) + cost(u,v) = d(v)
+     */
+    private void tightBfsPredecessors() {
+        int[] preds = predecessors;
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        if (queue == null) {
+            queue = new int[order];
+        }
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        preds[source] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int p = offsets[u]; p < offsets[u + 1]; p++) {
+                int v = targets[p];
+                if (preds[v] < 0 && distances[u] + (weights == null ? 1 : weights[p]) == distances[v]) {
+                    preds[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Relaxes the chunks [from, to) of the nodes, splitting the range in two while it holds several chunks
+     */
+    private class RelaxTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] nodes;
+        private final int size;
+        private final int from;
+        private final int to;
+        private final boolean heavy;
+        private final int[][] parts;
+        private final int[] sizes;
+
+        RelaxTask(int[] nodes, int size, int from, int to, boolean heavy, int[][] parts, int[] sizes) {
+            this.nodes = nodes;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+            this.heavy = heavy;
+            this.parts = parts;
+            this.sizes = sizes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RelaxTask(nodes, size, from, mid, heavy, parts, sizes),
+                        new RelaxTask(nodes, size, mid, to, heavy, parts, sizes));
+                return;
+            }
+            relaxRange(nodes, from * CHUNK, Math.min(size, (from + 1) * CHUNK), heavy, parts, sizes, from);
+        }
+    }
+
+    /**
+     * Finds the smallest predecessors of the nodes touched[from..to-1], splitting the range while it is large
+     */
+    private class PredecessorTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        PredecessorTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > sequentialThreshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PredecessorTask(from, mid), new PredecessorTask(mid, to));
+                return;
+            }
+            int[] predOffsets = graph.getPredOffsets();
+            int[] sources = graph.getSources();
+            for (int k = from; k < to; k++) {
+                int v = touched[k];
+                int best = -1;
+                for (int p = predOffsets[v]; p < predOffsets[v + 1]; p++) {
+                    int u = sources[p];
+                    if ((best < 0 || u < best) && distances[u] != INFINITY
+                            && distances[u] + (predWeights == null ? 1 : predWeights[p]) == distances[v]) {
+                        best = u;
+                    }
+                }
+                predecessors[v] = best;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = 200_000;
+        int m = n * 8;
+        Random random = new Random(100001);
+        GraphBuilder builder = new GraphBuilder(n);
+        for (int k = 0; k < m; k++) {
+            builder.addArc(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(1000));
+        }
+        DirectedValuedGraph g = builder.buildDirectedValuedGraph(true);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        DeltaStepping parallel = new DeltaStepping(g, pool);
+        Dijkstra serial = new Dijkstra(CsrDirectedGraph.of(g));
+        System.out.println("delta " + parallel.getDelta() + " for costs up to " + parallel.getMaxCost());
+
+        for (int round = 0; round < 3; round++) {
+            int depot = random.nextInt(n);
+            long t0 = System.nanoTime();
+            long[] d1 = parallel.run(depot);
+            long t1 = System.nanoTime();
+            long[] d2 = serial.run(depot);
+            long t2 = System.nanoTime();
+            System.out.println("delta-stepping on " + pool.getParallelism() + " threads " + (t1 - t0) / 1000
+                    + " us in " + parallel.getNbPhases() + " phases, dijkstra " + (t2 - t1) / 1000
+                    + " us, same distances: " + Arrays.equals(d1, d2));
+        }
+        for (int delta : new int[]{10, 100, 1000, 10_000}) {
+            parallel.setDelta(delta);
+            long t0 = System.nanoTime();
+            parallel.run(0);
+            System.out.println("delta " + delta + ": " + (System.nanoTime() - t0) / 1000 + " us in "
+                    + parallel.getNbPhases() + " phases");
+        }
+
+        // the number of arcs of the shortest paths, from a column of the same topology
+        CsrDirectedGraph csr = CsrDirectedGraph.of(g);
+        IntColumn hops = new PropertyStore(csr).addIntEdgeColumn("hops");
+        for (int k = 0; k < hops.size(); k++) {
+            hops.set(k, 1);
+        }
+        long[] depths = new DeltaStepping(csr, hops, pool).run(0);
+        System.out.println("node 42 is " + depths[42] + " arcs away from node 0, same as dijkstra: "
+                + Arrays.equals(depths, new Dijkstra(csr, hops).run(0)));
+        pool.shutdown();
+    }
+}
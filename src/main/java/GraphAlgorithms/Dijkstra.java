@@ -0,0 +1,385 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.IUndirectedGraph;
+import Abstraction.WeightedArcConsumer;
+import AdjacencyList.CsrDirectedGraph;
+import AdjacencyList.DirectedValuedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedValuedGraph;
+import Storage.PropertyStore;
+import Storage.PropertyStore.IntColumn;
+
+/**
+ * Dijkstra's single source shortest paths on the costs of a graph, which must not be negative, a graph which
+ * is not valued costing 1 per arc. The arcs are read in place through forEachOutArc (forEachEdge for an
+ * undirected graph), so list, matrix and CSR graphs run without conversion, or from a CSR and a cost column
+ * of a PropertyStore, so that several costs share one topology. The frontier holds each node once:
+ * an IndexedDaryHeap, or when the largest cost C is small Dial's BucketQueue, which runs in O(m + n·C) instead
+ * of O(m log n), see QueueType. A search can stop once a target is settled, and ignore the nodes farther than a bound.
+ * The arrays and the queue are kept from one search to the next and only the nodes touched by the previous search
+ * are reset, so repeated searches of small regions of a large graph cost the size of the regions.
+ */
+public class Dijkstra {
+
+    public static final long INFINITY = Long.MAX_VALUE;
+    public static final int BUCKET_MAX_COST = 1 << 10;
+
+    /**
+     * The frontier of the searches
+     */
+    public enum QueueType {
+        /** BUCKETS if the largest cost is at most BUCKET_MAX_COST, else HEAP */
+        AUTO,
+        /** an IndexedDaryHeap */
+        HEAP,
+        /** a BucketQueue with one bucket per cost in [0, C], which requires a pass over the arcs to find C */
+        BUCKETS
+    }
+
+    /**
+     * Scans the arcs leaving a node with their costs
+     */
+    private interface ArcScanner {
+        void scan(int x, WeightedArcConsumer action);
+    }
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int order;
+    private final ArcScanner arcs;
+    private final long[] distances;
+    private final int[] predecessors;
+    private final int[] touched;        // the nodes whose distance is set, to reset before the next search
+    private int nbTouched;
+    private QueueType queueType = QueueType.AUTO;
+    private NodePriorityQueue queue;    // created by the first search
+    private int maxCost = -1;           // the largest cost, -1 until it is needed
+    private final Relaxer relaxer = new Relaxer();
+    private int source = -1;
+    private int nbSettled;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    public Dijkstra(IDirectedGraph graph) {
+        this(graph.getNbNodes(), graph::forEachOutArc);
+    }
+
+    public Dijkstra(IUndirectedGraph graph) {
+        this(graph.getNbNodes(), graph::forEachEdge);
+    }
+
+    /**
+     * @param costs the cost of each arc indexed by its position in graph.getTargets(), read in place, so
+     * that the column may change between searches as long as getMaxCost() is not exceeded
+     */
+    public Dijkstra(CsrDirectedGraph graph, IntColumn costs) {
+        this(graph.getNbNodes(), columnScanner(graph, costs));
+    }
+
+    private Dijkstra(int order, ArcScanner arcs) {
+        this.order = order;
+        this.arcs = arcs;
+        this.distances = new long[order];
+        this.predecessors = new int[order];
+        this.touched = new int[order];
+        Arrays.fill(distances, INFINITY);
+        Arrays.fill(predecessors, -1);
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public QueueType getQueueType() {
+        return queueType;
+    }
+
+    /**
+     * Chooses the frontier of the next searches, forgetting the last search
+     */
+    public void setQueueType(QueueType queueType) {
+        this.reset();
+        this.queueType = queueType;
+        this.queue = null;
+    }
+
+    /**
+     * @return the frontier used by the searches, chosen by the first one
+     */
+    public NodePriorityQueue getQueue() {
+        if (queue == null) {
+            queue = this.createQueue();
+        }
+        return queue;
+    }
+
+    /**
+     * @return the largest cost of an arc, 0 if there is none, found by a pass over all the arcs on the first call.
+     * The graph must not get costlier arcs afterwards when a BucketQueue is used.
+     */
+    public int getMaxCost() {
+        if (maxCost < 0) {
+            int[] max = {0};
+            for (int x = 0; x < order; x++) {
+                arcs.scan(x, (y, w) -> max[0] = Math.max(max[0], w));
+            }
+            maxCost = max[0];
+        }
+        return maxCost;
+    }
+
+    /**
+     * @return the source of the last search, -1 before any
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return the number of nodes settled by the last search
+     */
+    public int getNbSettled() {
+        return nbSettled;
+    }
+
+    /**
+     * @return the distances of the last search, INFINITY for the nodes not reached. The array belongs to
+     * the engine and is overwritten by the next search.
+     */
+    public long[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * @return the predecessor of each node on its shortest path in the last search, the source being its own
+     * predecessor and -1 marking the nodes not reached. The array belongs to the engine as well.
+     */
+    public int[] getPredecessors() {
+        return predecessors;
+    }
+
+    public long getDistance(int x) {
+        return distances[x];
+    }
+
+    /**
+     * @return true if the distance of x is final: always after a full search, only for the nodes taken out of
+     * the queue after one stopped at its target, the others holding an upper bound
+     */
+    public boolean isSettled(int x) {
+        return distances[x] != INFINITY && (queue == null || !queue.contains(x));
+    }
+
+    /**
+     * @return the nodes from the source to x in the last search, empty if x is not reached
+     */
+    public int[] getPath(int x) {
+        if (distances[x] == INFINITY) {
+            return new int[0];
+        }
+        int length = 1;
+        for (int y = x; y != source; y = predecessors[y]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int k = length - 1; k >= 0; k--) {
+            path[k] = x;
+            x = predecessors[x];
+        }
+        return path;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * Computes the distances from source to every node
+     * @return getDistances()
+     */
+    public long[] run(int source) {
+        return this.run(source, -1, INFINITY);
+    }
+
+    /**
+     * Computes the distances from source until target is settled or no node closer than bound remains
+     * @param target the node to stop at, -1 to settle every reachable node
+     * @param bound the nodes farther than it are left unreached, INFINITY for no bound
+     * @return getDistances()
+     */
+    public long[] run(int source, int target, long bound) {
+        if (source < 0 || source >= order) {
+            throw new IllegalArgumentException("source " + source + " is out of [0," + order + ")");
+        }
+        if (target < -1 || target >= order) {
+            throw new IllegalArgumentException("target " + target + " is out of [0," + order + ")");
+        }
+        if (bound < 0) {
+            throw new IllegalArgumentException("the bound must not be negative");
+        }
+        this.reset();
+        NodePriorityQueue queue = this.getQueue();
+        this.source = source;
+        relaxer.bound = bound;
+        this.touch(source, 0, source);
+        queue.insertOrDecrease(source, 0);
+        while (!queue.isEmpty()) {
+            relaxer.base = queue.peekPriority();
+            int u = queue.poll();
+            nbSettled++;
+            if (u == target) {
+                break;
+            }
+            relaxer.from = u;
+            arcs.scan(u, relaxer);
+        }
+        return distances;
+    }
+
+    /**
+     * Resets the nodes touched by the previous search
+     */
+    private void reset() {
+        for (int k = 0; k < nbTouched; k++) {
+            distances[touched[k]] = INFINITY;
+            predecessors[touched[k]] = -1;
+        }
+        nbTouched = 0;
+        nbSettled = 0;
+        if (queue != null) {
+            queue.clear();
+        }
+    }
+
+    private static ArcScanner columnScanner(CsrDirectedGraph graph, IntColumn costs) {
+        if (costs.size() != graph.getNbArcs()) {
+            throw new IllegalArgumentException("the column holds " + costs.size() + " costs for "
+                    + graph.getNbArcs() + " arcs");
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] values = costs.getArray();
+        return (x, action) -> {
+            for (int k = offsets[x]; k < offsets[x + 1]; k++) {
+                action.accept(targets[k], values[k]);
+            }
+        };
+    }
+
+    private NodePriorityQueue createQueue() {
+        if (queueType == QueueType.BUCKETS || (queueType == QueueType.AUTO && this.getMaxCost() <= BUCKET_MAX_COST)) {
+            return new BucketQueue(order, this.getMaxCost());
+        }
+        return new IndexedDaryHeap(order);
+    }
+
+    private void touch(int x, long distance, int predecessor) {
+        if (distances[x] == INFINITY) {
+            touched[nbTouched++] = x;
+        }
+        distances[x] = distance;
+        predecessors[x] = predecessor;
+    }
+
+    /**
+     * Relaxes the arcs leaving the node being settled, one object for the whole search
+     */
+    private final class Relaxer implements WeightedArcConsumer {
+
+        private int from;
+        private long base;      // the distance of from
+        private long bound;
+
+        @Override
+        public void accept(int node, int weight) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("negative cost " + weight + " on arc (" + from + "," + node + ")");
+            }
+            long d = base + weight;
+            if (d < distances[node] && d <= bound) {
+                touch(node, d, from);
+                queue.insertOrDecrease(node, d);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = 2000;
+        int[][] matrix = GraphTools.generateGraphData(n, n * 10, false, false, false, 100001);
+        int[][] costs = new int[n][n];
+        Random random = new Random(100001);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (matrix[i][j] != 0) {
+                    costs[i][j] = 1 + random.nextInt(100);
+                }
+            }
+        }
+        Dijkstra list = new Dijkstra(new DirectedValuedGraph(costs));
+        Dijkstra onMatrix = new Dijkstra(new AdjacencyMatrixDirectedValuedGraph(matrix, costs));
+        CsrDirectedGraph g = new CsrDirectedGraph(new DirectedValuedGraph(costs));
+        Dijkstra csr = new Dijkstra(g);
+
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            long[] d1 = list.run(0).clone();
+            long t1 = System.nanoTime();
+            long[] d2 = onMatrix.run(0).clone();
+            long t2 = System.nanoTime();
+            long[] d3 = csr.run(0);
+            long t3 = System.nanoTime();
+            System.out.println("list " + (t1 - t0) / 1000 + " us, matrix " + (t2 - t1) / 1000 + " us, csr "
+                    + (t3 - t2) / 1000 + " us, same distances: " + (Arrays.equals(d1, d2) && Arrays.equals(d1, d3)));
+        }
+        csr.run(0, 42, INFINITY);
+        System.out.println("0 -> 42: " + csr.getDistance(42) + " by " + Arrays.toString(csr.getPath(42))
+                + ", " + csr.getNbSettled() + " nodes settled");
+        csr.run(0, -1, 20);
+        System.out.println(csr.getNbSettled() + " nodes within 20 of node 0");
+
+        // two costs on one topology, read from the columns of a property store
+        PropertyStore store = new PropertyStore(g);
+        IntColumn cost = store.importCosts("cost");
+        IntColumn hops = store.addIntEdgeColumn("hops");
+        for (int k = 0; k < hops.size(); k++) {
+            hops.set(k, 1);
+        }
+        Dijkstra byCost = new Dijkstra(g, cost);
+        Dijkstra byHops = new Dijkstra(g, hops);
+        System.out.println("0 -> 42: cost " + byCost.run(0)[42] + ", " + byHops.run(0)[42] + " arcs at least");
+
+        // binary heap against buckets on a sparse graph with small costs
+        int order = 200_000;
+        int m = order * 5;
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        int[] w = new int[m];
+        for (int k = 0; k < m; k++) {
+            src[k] = random.nextInt(order);
+            dst[k] = random.nextInt(order);
+            w[k] = 1 + random.nextInt(15);
+        }
+        CsrDirectedGraph big = new CsrDirectedGraph(order, src, dst, w);
+        Dijkstra heap = new Dijkstra(big);
+        heap.setQueueType(QueueType.HEAP);
+        Dijkstra buckets = new Dijkstra(big);
+        System.out.println("largest cost " + buckets.getMaxCost() + ", AUTO picks "
+                + buckets.getQueue().getClass().getSimpleName());
+        for (int round = 0; round < 5; round++) {
+            long t0 = System.nanoTime();
+            long[] d1 = heap.run(round);
+            long t1 = System.nanoTime();
+            long[] d2 = buckets.run(round);
+            long t2 = System.nanoTime();
+            System.out.println("heap " + (t1 - t0) / 1000 + " us, buckets " + (t2 - t1) / 1000
+                    + " us, same distances: " + Arrays.equals(d1, d2));
+        }
+    }
+}
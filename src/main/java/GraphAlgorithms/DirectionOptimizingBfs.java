@@ -0,0 +1,207 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.IUndirectedGraph;
+import AdjacencyList.CsrDirectedGraph;
+
+/**
+ * Breadth first search switching between two ways of expanding a level (Beamer, Asanović and Patterson).
+ * Top-down scans the successors of the frontier, as usual. Bottom-up scans the predecessors of every node
+ * not reached yet, and stops at the first one in the frontier, which is cheaper when the frontier holds a
+ * large part of the graph. The frontier is a queue in top-down and a bitmap in bottom-up.
+ * The search goes bottom-up when the arcs leaving the frontier exceed 1/alpha of the arcs leaving the
+ * nodes not reached, and back top-down when the frontier falls under 1/beta of the nodes.
+ */
+public class DirectionOptimizingBfs {
+
+    public static final int DEFAULT_ALPHA = 15;
+    public static final int DEFAULT_BETA = 18;
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final CsrDirectedGraph graph;
+    private int alpha = DEFAULT_ALPHA;
+    private int beta = DEFAULT_BETA;
+    private int nbBottomUpLevels;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * @param graph converted by CsrDirectedGraph.of, the predecessors come from the reverse CSR
+     */
+    public DirectionOptimizingBfs(IDirectedGraph graph) {
+        this.graph = CsrDirectedGraph.of(graph);
+    }
+
+    /**
+     * @param graph converted by CsrDirectedGraph.of, the predecessors are the neighbours
+     */
+    public DirectionOptimizingBfs(IUndirectedGraph graph) {
+        this.graph = CsrDirectedGraph.of(graph);
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public int getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * @param alpha the search goes bottom-up when the arcs of the frontier exceed 1/alpha of the arcs of the
+     *              nodes not reached, the greater the sooner, 0 to stay top-down
+     */
+    public void setAlpha(int alpha) {
+        if (alpha < 0) {
+            throw new IllegalArgumentException("alpha must be positive");
+        }
+        this.alpha = alpha;
+    }
+
+    public int getBeta() {
+        return beta;
+    }
+
+    /**
+     * @param beta the search goes back top-down when the frontier falls under 1/beta of the nodes,
+     *             the greater the later
+     */
+    public void setBeta(int beta) {
+        if (beta <= 0) {
+            throw new IllegalArgumentException("beta must be positive");
+        }
+        this.beta = beta;
+    }
+
+    /**
+     * @return the number of levels expanded bottom-up by the last search
+     */
+    public int getNbBottomUpLevels() {
+        return nbBottomUpLevels;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    public BfsResult run(int source) {
+        int n = graph.getNbNodes();
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("source " + source + " is out of [0," + n + ")");
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] predOffsets = graph.getPredOffsets();
+        int[] sources = graph.getSources();
+
+        int[] parents = new int[n];
+        int[] depths = new int[n];
+        Arrays.fill(parents, -1);
+        Arrays.fill(depths, -1);
+        parents[source] = source;
+        depths[source] = 0;
+        int reached = 1;
+        nbBottomUpLevels = 0;
+
+        int[] queue = new int[n];           // in top-down, the frontier is queue[start..end-1]
+        int start = 0;
+        int end = 1;
+        queue[0] = source;
+        long[] frontier = new long[(n + 63) >>> 6];
+        long[] next = new long[frontier.length];
+        int frontierSize = 1;
+        long frontierArcs = graph.getOutDegree(source);
+        long unexploredArcs = graph.getNbArcs() - frontierArcs;
+        boolean bottomUp = false;
+
+        for (int level = 0; frontierSize > 0; level++) {
+            if (!bottomUp && frontierArcs * alpha > unexploredArcs) {
+                bottomUp = true;
+                Arrays.fill(frontier, 0L);
+                for (int k = start; k < end; k++) {
+                    frontier[queue[k] >>> 6] |= 1L << queue[k];
+                }
+            } else if (bottomUp && (long) frontierSize * beta < n) {
+                bottomUp = false;
+                start = 0;
+                end = 0;
+                for (int w = 0; w < frontier.length; w++) {
+                    for (long word = frontier[w]; word != 0; word &= word - 1) {
+                        queue[end++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                    }
+                }
+            }
+
+            frontierArcs = 0;
+            if (bottomUp) {
+                nbBottomUpLevels++;
+                Arrays.fill(next, 0L);
+                frontierSize = 0;
+                for (int v = 0; v < n; v++) {
+                    if (depths[v] >= 0) {
+                        continue;
+                    }
+                    for (int k = predOffsets[v]; k < predOffsets[v + 1]; k++) {
+                        int u = sources[k];
+                        if ((frontier[u >>> 6] & (1L << u)) != 0) {
+                            parents[v] = u;
+                            depths[v] = level + 1;
+                            next[v >>> 6] |= 1L << v;
+                            frontierSize++;
+                            frontierArcs += offsets[v + 1] - offsets[v];
+                            break;
+                        }
+                    }
+                }
+                long[] tmp = frontier;
+                frontier = next;
+                next = tmp;
+            } else {
+                int tail = end;
+                for (int k = start; k < end; k++) {
+                    int u = queue[k];
+                    for (int p = offsets[u]; p < offsets[u + 1]; p++) {
+                        int v = targets[p];
+                        if (depths[v] < 0) {
+                            parents[v] = u;
+                            depths[v] = level + 1;
+                            queue[tail++] = v;
+                            frontierArcs += offsets[v + 1] - offsets[v];
+                        }
+                    }
+                }
+                start = end;
+                end = tail;
+                frontierSize = end - start;
+            }
+            reached += frontierSize;
+            unexploredArcs -= frontierArcs;
+        }
+        return new BfsResult(source, parents, depths, reached);
+    }
+
+    public static void main(String[] args) {
+        CsrDirectedGraph g = GraphGenerators.rmat(18, 16 << 18, 100001).buildCsr();
+        DirectionOptimizingBfs bfs = new DirectionOptimizingBfs(g);
+        DirectionOptimizingBfs topDown = new DirectionOptimizingBfs(g);
+        topDown.setAlpha(0);
+
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            BfsResult res = bfs.run(0);
+            long t1 = System.nanoTime();
+            BfsResult ref = topDown.run(0);
+            long t2 = System.nanoTime();
+            System.out.println(res.getNbReached() + " nodes reached, " + bfs.getNbBottomUpLevels()
+                    + " levels bottom-up in " + (t1 - t0) / 1000 + " us, top-down only in " + (t2 - t1) / 1000
+                    + " us, same depths: " + Arrays.equals(res.getDepths(), ref.getDepths()));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import AdjacencyList.UndirectedValuedGraph;
+
+/**
+ * A binary min-heap of weighted edges stored in three parallel int arrays, with the semantics of BinaryHeapEdge:
+ * insert an edge (from,to,weight), remove the edge of minimal weight. Nothing is allocated per edge: remove()
+ * keeps the removed edge in lastFrom(), lastTo() and lastWeight() instead of returning a Triple, and the sifts
+ * move a hole instead of swapping. A heap of m edges can be built at once in O(m).
+ */
+public class EdgeHeap {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private int[] from;
+    private int[] to;
+    private int[] weights;
+    private int size;
+    private int lastFrom = -1;
+    private int lastTo = -1;
+    private int lastWeight;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    public EdgeHeap() {
+        this(32);
+    }
+
+    /**
+     * @param capacity the number of edges expected, the arrays double when they are full
+     */
+    public EdgeHeap(int capacity) {
+        this.from = new int[Math.max(1, capacity)];
+        this.to = new int[from.length];
+        this.weights = new int[from.length];
+    }
+
+    /**
+     * Builds the heap of the edges (from[k],to[k],weights[k]) at once, in O(m). The arrays are copied.
+     */
+    public EdgeHeap(int[] from, int[] to, int[] weights) {
+        if (from.length != to.length || from.length != weights.length) {
+            throw new IllegalArgumentException("from, to and weights must have the same length");
+        }
+        this.from = Arrays.copyOf(from, Math.max(1, from.length));
+        this.to = Arrays.copyOf(to, this.from.length);
+        this.weights = Arrays.copyOf(weights, this.from.length);
+        this.size = from.length;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            this.siftDown(i, this.from[i], this.to[i], this.weights[i]);
+        }
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the first node of the last removed edge, -1 before any removal
+     */
+    public int lastFrom() {
+        return lastFrom;
+    }
+
+    /**
+     * @return the second node of the last removed edge, -1 before any removal
+     */
+    public int lastTo() {
+        return lastTo;
+    }
+
+    /**
+     * @return the weight of the last removed edge
+     */
+    public int lastWeight() {
+        return lastWeight;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * Inserts a new edge in the heap
+     */
+    public void insert(int from, int to, int weight) {
+        if (size == this.from.length) {
+            int capacity = size * 2;
+            this.from = Arrays.copyOf(this.from, capacity);
+            this.to = Arrays.copyOf(this.to, capacity);
+            this.weights = Arrays.copyOf(this.weights, capacity);
+        }
+        int child = size++;
+        while (child > 0) {
+            int father = (child - 1) / 2;
+            if (weights[father] <= weight) {
+                break;
+            }
+            this.place(child, this.from[father], this.to[father], weights[father]);
+            child = father;
+        }
+        this.place(child, from, to, weight);
+    }
+
+    /**
+     * Removes the edge of minimal weight, which is then given by lastFrom(), lastTo() and lastWeight()
+     * @return false if the heap was empty
+     */
+    public boolean remove() {
+        if (size == 0) {
+            return false;
+        }
+        lastFrom = from[0];
+        lastTo = to[0];
+        lastWeight = weights[0];
+        size--;
+        if (size > 0) {
+            this.siftDown(0, from[size], to[size], weights[size]);
+        }
+        return true;
+    }
+
+    /**
+     * Moves the hole at pos down while its smallest child is lighter, then puts the edge in it
+     */
+    private void siftDown(int pos, int f, int t, int w) {
+        while (true) {
+            int best = 2 * pos + 1;
+            if (best >= size) {
+                break;
+            }
+            if (best + 1 < size && weights[best + 1] < weights[best]) {
+                best++;
+            }
+            if (weights[best] >= w) {
+                break;
+            }
+            this.place(pos, from[best], to[best], weights[best]);
+            pos = best;
+        }
+        this.place(pos, f, t, w);
+    }
+
+    private void place(int pos, int f, int t, int w) {
+        from[pos] = f;
+        to[pos] = t;
+        weights[pos] = w;
+    }
+
+    /**
+     * @return true if every edge is at least as heavy as its father
+     */
+    public boolean test() {
+        for (int i = 1; i < size; i++) {
+            if (weights[i] < weights[(i - 1) / 2]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            s.append("(").append(from[i]).append(",").append(to[i]).append(",").append(weights[i]).append("), ");
+        }
+        return s.toString();
+    }
+
+    public static void main(String[] args) {
+        int n = 2000;
+        int[][] matrix = GraphTools.generateGraphData(n, n * 20, false, true, false, 100001);
+        int[][] costs = new int[n][n];
+        Random random = new Random(100001);
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                if (matrix[i][j] != 0) {
+                    costs[i][j] = 1 + random.nextInt(100);
+                    costs[j][i] = costs[i][j];
+                }
+            }
+        }
+        UndirectedValuedGraph g = new UndirectedValuedGraph(costs);
+
+        // Prim from node 0: the edges leaving the tree wait in the heap, the lightest one joins the tree
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            boolean[] inTree = new boolean[n];
+            EdgeHeap heap = new EdgeHeap();
+            inTree[0] = true;
+            g.forEachEdge(0, (y, w) -> heap.insert(0, y, w));
+            long total = 0;
+            int treeEdges = 0;
+            while (heap.remove()) {
+                int y = heap.lastTo();
+                if (inTree[y]) {
+                    continue;
+                }
+                inTree[y] = true;
+                total += heap.lastWeight();
+                treeEdges++;
+                g.forEachEdge(y, (z, w) -> {
+                    if (!inTree[z]) {
+                        heap.insert(y, z, w);
+                    }
+                });
+            }
+            System.out.println("spanning tree of " + treeEdges + " edges, weight " + total + ", in "
+                    + (System.nanoTime() - t0) / 1_000_000 + " ms");
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+import java.util.List;
+
+import AdjacencyList.CompressedDirectedGraph;
+import AdjacencyList.CsrDirectedGraph;
+import AdjacencyList.DirectedGraph;
+import AdjacencyList.DirectedValuedGraph;
+import AdjacencyList.DynamicDirectedGraph;
+import AdjacencyList.UndirectedGraph;
+import AdjacencyList.UndirectedValuedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedValuedGraph;
+import AdjacencyMatrix.AdjacencyMatrixUndirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixUndirectedValuedGraph;
+import AdjacencyMatrix.MatrixStorage;
+import Collection.IdDictionary;
+import Nodes.DirectedNode;
+import Nodes.UndirectedNode;
+
+/**
+ * Collects a stream of arcs, with optional costs, and builds any graph implementation from them without
+ * going through an int[][] matrix. The arcs are sorted by a CsrDirectedGraph in O(n + m), then added one
+ * by one to the target graph, so list and compact graphs are built in O(n + m) time and memory.
+ * The matrix implementations still allocate their O(n²) storage.
+ * For the undirected graphs each arc (x,y) is an edge {x,y}.
+ */
+public class GraphBuilder {
+
+    public static final int MAX_ARCS = Integer.MAX_VALUE - 8;     // the largest array most VMs allocate
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int order;            // fixed number of nodes, -1 to infer it from the labels
+    private final IdDictionary ids;     // dictionary of the external ids, null if arcs are given by label
+    private int maxLabel = -1;
+    private int m;
+    private int[] src = new int[16];
+    private int[] dst = new int[16];
+    private int[] costs;                // allocated with the first cost, the arcs added before cost 0
+    private boolean deduplicate;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * The order of the built graphs is the greatest label plus one
+     */
+    public GraphBuilder() {
+        this.order = -1;
+        this.ids = null;
+    }
+
+    /**
+     * @param order the number of nodes, labels must be in [0, order)
+     */
+    public GraphBuilder(int order) {
+        if (order < 0) {
+            throw new IllegalArgumentException("order must be positive");
+        }
+        this.order = order;
+        this.ids = null;
+    }
+
+    /**
+     * Arcs are given by external ids, interned in ids. The order of the built graphs is the size of the dictionary.
+     */
+    public GraphBuilder(IdDictionary ids) {
+        this.order = -1;
+        this.ids = ids;
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    /**
+     * @param deduplicate at true to keep only the first of multiple arcs (or edges) when building, with its cost
+     */
+    public void setDeduplicate(boolean deduplicate) {
+        this.deduplicate = deduplicate;
+    }
+
+    public boolean isDeduplicate() {
+        return deduplicate;
+    }
+
+    /**
+     * @return the number of arcs added so far, multiple arcs included
+     */
+    public int getNbArcs() {
+        return m;
+    }
+
+    /**
+     * @return the number of nodes of the graphs built from the current arcs
+     */
+    public int getNbNodes() {
+        if (order >= 0) {
+            return order;
+        }
+        return ids != null ? Math.max(ids.size(), maxLabel + 1) : maxLabel + 1;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    public void addArc(int from, int to) {
+        this.add(from, to);
+    }
+
+    public void addArc(int from, int to, int cost) {
+        this.add(from, to);
+        if (costs == null) {
+            costs = new int[src.length];
+        }
+        costs[m - 1] = cost;
+    }
+
+    public void addEdge(int x, int y) {
+        this.addArc(x, y);
+    }
+
+    public void addEdge(int x, int y, int cost) {
+        this.addArc(x, y, cost);
+    }
+
+    /**
+     * Adds the arc between two external ids, interning them
+     */
+    public void addArc(long from, long to) {
+        this.addArc(this.requireIds().intern(from), ids.intern(to));
+    }
+
+    public void addArc(long from, long to, int cost) {
+        this.addArc(this.requireIds().intern(from), ids.intern(to), cost);
+    }
+
+    /**
+     * Adds the arcs (src[k], dst[k])
+     */
+    public void addArcs(int[] src, int[] dst) {
+        this.addArcs(src, dst, null);
+    }
+
+    /**
+     * Adds the arcs (src[k], dst[k]) of cost costs[k], or without cost if costs is null
+     */
+    public void addArcs(int[] src, int[] dst, int[] costs) {
+        if (src.length != dst.length || (costs != null && costs.length != src.length)) {
+            throw new IllegalArgumentException("src, dst and costs must have the same length");
+        }
+        this.ensureCapacity((long) m + src.length);
+        for (int k = 0; k < src.length; k++) {
+            if (costs != null) {
+                this.addArc(src[k], dst[k], costs[k]);
+            } else {
+                this.addArc(src[k], dst[k]);
+            }
+        }
+    }
+
+    /**
+     * Appends the arcs of other, in their order, with their costs
+     */
+    public void addAll(GraphBuilder other) {
+        if (order >= 0 && other.maxLabel >= order) {
+            throw new IllegalArgumentException("label " + other.maxLabel + " is out of [0," + order + ")");
+        }
+        int start = m;
+        this.ensureCapacity((long) m + other.m);
+        // the arcs of other were checked when they were added to it
+        System.arraycopy(other.src, 0, src, start, other.m);
+        System.arraycopy(other.dst, 0, dst, start, other.m);
+        m += other.m;
+        maxLabel = Math.max(maxLabel, other.maxLabel);
+        if (other.costs != null) {
+            if (costs == null) {
+                costs = new int[src.length];
+            }
+            System.arraycopy(other.costs, 0, costs, start, other.m);
+        }
+    }
+
+    private void add(int from, int to) {
+        if (from < 0 || to < 0 || (order >= 0 && (from >= order || to >= order))) {
+            throw new IllegalArgumentException("arc (" + from + "," + to + ") is out of [0," + getNbNodes() + ")");
+        }
+        this.ensureCapacity(m + 1L);
+        src[m] = from;
+        dst[m] = to;
+        m++;
+        maxLabel = Math.max(maxLabel, Math.max(from, to));
+    }
+
+    private void ensureCapacity(long capacity) {
+        if (capacity > MAX_ARCS) {
+            throw new IllegalStateException("a builder holds at most " + MAX_ARCS + " arcs, " + capacity + " asked");
+        }
+        if (capacity > src.length) {
+            int length = (int) Math.min(MAX_ARCS, Math.max(capacity, 2L * src.length));
+            src = Arrays.copyOf(src, length);
+            dst = Arrays.copyOf(dst, length);
+            if (costs != null) {
+                costs = Arrays.copyOf(costs, length);
+            }
+        }
+    }
+
+    private IdDictionary requireIds() {
+        if (ids == null) {
+            throw new IllegalStateException("the builder was not created with an IdDictionary");
+        }
+        return ids;
+    }
+
+    /**
+     * @param undirected at true to store each edge once, as the arc (min, max)
+     * @return the arcs sorted by origin then destination, deduplicated if asked
+     */
+    private CsrDirectedGraph sorted(boolean undirected, boolean withCosts) {
+        int n = getNbNodes();
+        int[] s = Arrays.copyOf(src, m);
+        int[] d = Arrays.copyOf(dst, m);
+        int[] c = withCosts && costs != null ? Arrays.copyOf(costs, m) : null;
+        if (undirected) {
+            for (int k = 0; k < m; k++) {
+                if (s[k] > d[k]) {
+                    int tmp = s[k];
+                    s[k] = d[k];
+                    d[k] = tmp;
+                }
+            }
+        }
+        CsrDirectedGraph csr = new CsrDirectedGraph(n, s, d, c);
+        if (!deduplicate) {
+            return csr;
+        }
+        // the sort is stable, so the first arc of a run of duplicates is the first one added
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] weights = csr.getWeights();
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+                if (p == offsets[i] || targets[p] != targets[p - 1]) {
+                    s[k] = i;
+                    d[k] = targets[p];
+                    if (c != null) {
+                        c[k] = weights[p];
+                    }
+                    k++;
+                }
+            }
+        }
+        if (k == m) {
+            return csr;
+        }
+        return new CsrDirectedGraph(n, Arrays.copyOf(s, k), Arrays.copyOf(d, k), c != null ? Arrays.copyOf(c, k) : null);
+    }
+
+    /**
+     * @return the arcs in a CSR, valued if a cost was given
+     */
+    public CsrDirectedGraph buildCsr() {
+        return this.sorted(false, true);
+    }
+
+    public CompressedDirectedGraph buildCompressedGraph() {
+        return new CompressedDirectedGraph(this.sorted(false, false));
+    }
+
+    /**
+     * Always deduplicates, since a dynamic graph is simple
+     */
+    public DynamicDirectedGraph buildDynamicGraph() {
+        boolean previous = deduplicate;
+        deduplicate = true;
+        try {
+            return new DynamicDirectedGraph(this.sorted(false, false));
+        } finally {
+            deduplicate = previous;
+        }
+    }
+
+    /**
+     * @param compactAdjacency see DirectedGraph(int, boolean)
+     */
+    public DirectedGraph buildDirectedGraph(boolean compactAdjacency) {
+        DirectedGraph g = new DirectedGraph(getNbNodes(), compactAdjacency);
+        this.fill(g, this.sorted(false, false));
+        return g;
+    }
+
+    public DirectedValuedGraph buildDirectedValuedGraph(boolean compactAdjacency) {
+        DirectedValuedGraph g = new DirectedValuedGraph(getNbNodes(), compactAdjacency);
+        this.fill(g, this.sorted(false, true));
+        return g;
+    }
+
+    public UndirectedGraph buildUndirectedGraph(boolean compactAdjacency) {
+        UndirectedGraph g = new UndirectedGraph(getNbNodes(), compactAdjacency);
+        this.fill(g, this.sorted(true, false));
+        return g;
+    }
+
+    public UndirectedValuedGraph buildUndirectedValuedGraph(boolean compactAdjacency) {
+        UndirectedValuedGraph g = new UndirectedValuedGraph(getNbNodes(), compactAdjacency);
+        this.fill(g, this.sorted(true, true));
+        return g;
+    }
+
+    /**
+     * @param packed see AdjacencyMatrixDirectedGraph(int, boolean), multiple arcs are then merged
+     */
+    public AdjacencyMatrixDirectedGraph buildMatrixDirectedGraph(boolean packed) {
+        AdjacencyMatrixDirectedGraph g = new AdjacencyMatrixDirectedGraph(getNbNodes(), packed);
+        CsrDirectedGraph csr = this.sorted(false, false);
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        for (int i = 0; i < csr.getNbNodes(); i++) {
+            for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+                g.addArc(new DirectedNode(i), new DirectedNode(targets[p]));
+            }
+        }
+        return g;
+    }
+
+    public AdjacencyMatrixDirectedValuedGraph buildMatrixDirectedValuedGraph() {
+        AdjacencyMatrixDirectedValuedGraph g = new AdjacencyMatrixDirectedValuedGraph(getNbNodes());
+        CsrDirectedGraph csr = this.sorted(false, true);
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] weights = csr.getWeights();
+        for (int i = 0; i < csr.getNbNodes(); i++) {
+            for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+                g.addArc(new DirectedNode(i), new DirectedNode(targets[p]), weights != null ? weights[p] : 0);
+            }
+        }
+        return g;
+    }
+
+    public AdjacencyMatrixUndirectedGraph buildMatrixUndirectedGraph(MatrixStorage storage) {
+        AdjacencyMatrixUndirectedGraph g = new AdjacencyMatrixUndirectedGraph(getNbNodes(), storage);
+        CsrDirectedGraph csr = this.sorted(true, false);
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        for (int i = 0; i < csr.getNbNodes(); i++) {
+            for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+                g.addEdge(new UndirectedNode(i), new UndirectedNode(targets[p]));
+            }
+        }
+        return g;
+    }
+
+    /**
+     * @param storage FULL or TRIANGULAR
+     */
+    public AdjacencyMatrixUndirectedValuedGraph buildMatrixUndirectedValuedGraph(MatrixStorage storage) {
+        AdjacencyMatrixUndirectedValuedGraph g = new AdjacencyMatrixUndirectedValuedGraph(getNbNodes(), storage);
+        CsrDirectedGraph csr = this.sorted(true, true);
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] weights = csr.getWeights();
+        for (int i = 0; i < csr.getNbNodes(); i++) {
+            for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+                g.addEdge(new UndirectedNode(i), new UndirectedNode(targets[p]), weights != null ? weights[p] : 0);
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Adds the arcs of csr to a list graph, using its own nodes. A list graph is simple, so multiple arcs are merged.
+     */
+    private void fill(DirectedGraph g, CsrDirectedGraph csr) {
+        List<DirectedNode> nodes = g.getNodes();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] weights = csr.getWeights();
+        for (int i = 0; i < csr.getNbNodes(); i++) {
+            for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+                if (g instanceof DirectedValuedGraph) {
+                    ((DirectedValuedGraph) g).addArc(nodes.get(i), nodes.get(targets[p]), weights != null ? weights[p] : 0);
+                } else {
+                    g.addArc(nodes.get(i), nodes.get(targets[p]));
+                }
+            }
+        }
+    }
+
+    private void fill(UndirectedGraph g, CsrDirectedGraph csr) {
+        List<UndirectedNode> nodes = g.getNodes();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] weights = csr.getWeights();
+        for (int i = 0; i < csr.getNbNodes(); i++) {
+            for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+                if (g instanceof UndirectedValuedGraph) {
+                    ((UndirectedValuedGraph) g).addEdge(nodes.get(i), nodes.get(targets[p]), weights != null ? weights[p] : 0);
+                } else {
+                    g.addEdge(nodes.get(i), nodes.get(targets[p]));
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        GraphBuilder builder = new GraphBuilder();
+        builder.setDeduplicate(true);
+        builder.addArcs(new int[]{0, 0, 1, 2, 3, 0}, new int[]{1, 2, 2, 3, 0, 1}, new int[]{4, 1, 2, 7, 3, 9});
+        builder.addArc(4, 1, 5);
+        System.out.println(builder.buildDirectedValuedGraph(false));
+        System.out.println(builder.buildUndirectedValuedGraph(true));
+        System.out.println(builder.buildMatrixUndirectedGraph(MatrixStorage.TRIANGULAR));
+
+        GraphBuilder sparse = new GraphBuilder(1_000_000);
+        for (int i = 0; i < 1_000_000; i++) {
+            sparse.addArc(i, (i + 1) % 1_000_000);
+        }
+        DirectedGraph big = sparse.buildDirectedGraph(true);
+        System.out.println(big.getNbNodes() + " nodes, " + big.getNbArcs() + " arcs");
+    }
+}
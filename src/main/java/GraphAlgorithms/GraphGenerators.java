@@ -0,0 +1,312 @@
+package GraphAlgorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiFunction;
+import java.util.function.DoubleSupplier;
+
+import AdjacencyList.CsrDirectedGraph;
+
+/**
+ * Random graph generators which emit the arcs (or edges) directly into a GraphBuilder, in O(n + m) time and
+ * memory, where GraphTools goes through an n x n matrix. Like GraphTools, a generator called twice with the
+ * same seed gives the same graph. The builders are returned before building, so the caller picks the
+ * implementation, and may set deduplicate for the generators which can produce multiple arcs.
+ */
+public class GraphGenerators {
+
+    private static final int ROWS_PER_BLOCK = 1 << 12;
+    private static final int ARCS_PER_BLOCK = 1 << 20;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    private GraphGenerators() {
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * Erdős–Rényi G(n,p): every arc (i,j) with i != j (every edge {i,j} if undirected) is present with probability p.
+     * Instead of drawing one number per pair, the gap to the next present pair is drawn from the geometric law,
+     * so the cost is O(n + m) (Batagelj and Brandes).
+     * @param directed at false to generate edges, each emitted once as (max, min)
+     * @param seed the unique seed giving a unique random graph
+     */
+    public static GraphBuilder erdosRenyi(int n, double p, boolean directed, int seed) {
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("p must be in [0,1]");
+        }
+        GraphBuilder builder = new GraphBuilder(n);
+        if (p == 0 || n < 2) {
+            return builder;
+        }
+        Random rand = new Random(seed);
+        erdosRenyiRows(builder, n, p, directed, 0, n, rand::nextDouble);
+        return builder;
+    }
+
+    /**
+     * Parallel G(n,p). The rows are cut in blocks of a fixed size, each block drawing from its own SplittableRandom
+     * split from the seed in block order, so the graph only depends on the seed, not on the number of threads.
+     * It is not the graph of the sequential version for the same seed.
+     */
+    public static GraphBuilder erdosRenyi(int n, double p, boolean directed, int seed, ForkJoinPool pool) {
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("p must be in [0,1]");
+        }
+        int nbBlocks = (n + ROWS_PER_BLOCK - 1) / ROWS_PER_BLOCK;
+        return runBlocks(pool, n, nbBlocks, seed, (block, rand) -> {
+            GraphBuilder b = new GraphBuilder(n);
+            if (p > 0) {
+                int lo = block * ROWS_PER_BLOCK;
+                erdosRenyiRows(b, n, p, directed, lo, Math.min(n, lo + ROWS_PER_BLOCK), rand::nextDouble);
+            }
+            return b;
+        });
+    }
+
+    /**
+     * Adds the pairs of the rows [lo, hi) drawn with probability p, skipping the absent ones by geometric gaps
+     */
+    private static void erdosRenyiRows(GraphBuilder builder, int n, double p, boolean directed, int lo, int hi,
+                                       DoubleSupplier rand) {
+        double logQ = Math.log1p(-p);
+        // pairs are scanned row by row, row i holding n-1 pairs (i,j), j != i, or i pairs (i,j), j < i
+        int i = lo;
+        long pos = -1;
+        while (i < hi) {
+            long skip = p == 1 ? 0 : (long) Math.floor(Math.log(1 - rand.getAsDouble()) / logQ);
+            pos += 1 + skip;
+            long rowLength = directed ? n - 1 : i;
+            while (i < hi && pos >= rowLength) {
+                pos -= rowLength;
+                i++;
+                rowLength = directed ? n - 1 : i;
+            }
+            if (i < hi) {
+                int j = (int) pos;
+                if (directed && j >= i) {
+                    j++;
+                }
+                builder.addArc(i, j);
+            }
+        }
+    }
+
+    /**
+     * R-MAT: each of the m arcs is placed in the 2^scale x 2^scale matrix by choosing recursively one of the
+     * four quadrants with the probabilities a, b, c and 1-a-b-c. It gives the skewed degrees of real graphs.
+     * Self loops and multiple arcs are kept.
+     */
+    public static GraphBuilder rmat(int scale, int m, double a, double b, double c, int seed) {
+        checkRmat(scale, a, b, c);
+        GraphBuilder builder = new GraphBuilder(1 << scale);
+        Random rand = new Random(seed);
+        rmatArcs(builder, scale, m, a, b, c, rand::nextDouble);
+        return builder;
+    }
+
+    /**
+     * Parallel R-MAT. The arcs are cut in blocks of a fixed size, each block drawing from its own SplittableRandom
+     * split from the seed in block order, so the graph only depends on the seed, not on the number of threads.
+     * It is not the graph of the sequential version for the same seed.
+     */
+    public static GraphBuilder rmat(int scale, int m, double a, double b, double c, int seed, ForkJoinPool pool) {
+        checkRmat(scale, a, b, c);
+        int nbBlocks = (int) (((long) m + ARCS_PER_BLOCK - 1) / ARCS_PER_BLOCK);
+        return runBlocks(pool, 1 << scale, nbBlocks, seed, (block, rand) -> {
+            GraphBuilder builder = new GraphBuilder(1 << scale);
+            int count = (int) Math.min(ARCS_PER_BLOCK, m - (long) block * ARCS_PER_BLOCK);
+            rmatArcs(builder, scale, count, a, b, c, rand::nextDouble);
+            return builder;
+        });
+    }
+
+    private static void checkRmat(int scale, double a, double b, double c) {
+        if (scale < 0 || scale > 30) {
+            throw new IllegalArgumentException("scale must be in [0,30]");
+        }
+        if (a < 0 || b < 0 || c < 0 || a + b + c > 1) {
+            throw new IllegalArgumentException("a, b and c must be probabilities of sum at most 1");
+        }
+    }
+
+    private static void rmatArcs(GraphBuilder builder, int scale, int count, double a, double b, double c,
+                                 DoubleSupplier rand) {
+        for (int k = 0; k < count; k++) {
+            int from = 0;
+            int to = 0;
+            for (int bit = scale - 1; bit >= 0; bit--) {
+                double r = rand.getAsDouble();
+                if (r >= a + b + c) {
+                    from |= 1 << bit;
+                    to |= 1 << bit;
+                } else if (r >= a + b) {
+                    from |= 1 << bit;
+                } else if (r >= a) {
+                    to |= 1 << bit;
+                }
+            }
+            builder.addArc(from, to);
+        }
+    }
+
+    /**
+     * R-MAT with the parameters of the Graph500 benchmark, a = 0.57, b = c = 0.19
+     */
+    public static GraphBuilder rmat(int scale, int m, int seed) {
+        return rmat(scale, m, 0.57, 0.19, 0.19, seed);
+    }
+
+    /**
+     * Barabási–Albert: starting from a clique of k+1 nodes, each new node is linked to k distinct nodes chosen
+     * with a probability proportional to their degree. The endpoints of the edges already generated are kept
+     * in an array, so drawing a node by degree is drawing a cell of it.
+     * @return a builder of exactly k(k+1)/2 + (n-k-1)k edges
+     */
+    public static GraphBuilder barabasiAlbert(int n, int k, int seed) {
+        if (k < 1 || n <= k) {
+            throw new IllegalArgumentException("k must be in [1,n)");
+        }
+        long nbEdges = (long) k * (k + 1) / 2 + (long) (n - k - 1) * k;
+        if (2 * nbEdges > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many edges");
+        }
+        GraphBuilder builder = new GraphBuilder(n);
+        int[] endpoints = new int[(int) (2 * nbEdges)];
+        int size = 0;
+        for (int i = 0; i <= k; i++) {
+            for (int j = 0; j < i; j++) {
+                builder.addEdge(i, j);
+                endpoints[size++] = i;
+                endpoints[size++] = j;
+            }
+        }
+        Random rand = new Random(seed);
+        int[] chosen = new int[k];
+        for (int v = k + 1; v < n; v++) {
+            int nbChosen = 0;
+            while (nbChosen < k) {
+                int t = endpoints[rand.nextInt(size)];
+                boolean known = false;
+                for (int x = 0; x < nbChosen && !known; x++) {
+                    known = chosen[x] == t;
+                }
+                if (!known) {
+                    chosen[nbChosen++] = t;
+                }
+            }
+            for (int x = 0; x < k; x++) {
+                builder.addEdge(v, chosen[x]);
+                endpoints[size++] = v;
+                endpoints[size++] = chosen[x];
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Random d-regular graph by the configuration model: each node gets d stubs, the stubs are shuffled
+     * and paired two by two. It may contain a few self loops and multiple edges, (d²-1)/4 on average,
+     * which deduplicating the builder removes at the price of a few nodes of lower degree.
+     */
+    public static GraphBuilder randomRegular(int n, int d, int seed) {
+        if (d < 0 || d >= n || ((long) n * d) % 2 != 0) {
+            throw new IllegalArgumentException("d must be in [0,n) and n*d must be even");
+        }
+        if ((long) n * d > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many edges");
+        }
+        int[] stubs = new int[n * d];
+        for (int k = 0; k < stubs.length; k++) {
+            stubs[k] = k / d;
+        }
+        Random rand = new Random(seed);
+        for (int k = stubs.length - 1; k > 0; k--) {
+            int r = rand.nextInt(k + 1);
+            int tmp = stubs[k];
+            stubs[k] = stubs[r];
+            stubs[r] = tmp;
+        }
+        GraphBuilder builder = new GraphBuilder(n);
+        for (int k = 0; k < stubs.length; k += 2) {
+            builder.addEdge(stubs[k], stubs[k + 1]);
+        }
+        return builder;
+    }
+
+    /**
+     * The rows x cols grid, node (r,c) being labelled r*cols + c, each node linked to its right and lower neighbours
+     */
+    public static GraphBuilder grid(int rows, int cols) {
+        if (rows < 0 || cols < 0 || (long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid grid size");
+        }
+        GraphBuilder builder = new GraphBuilder(rows * cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int x = r * cols + c;
+                if (c + 1 < cols) {
+                    builder.addEdge(x, x + 1);
+                }
+                if (r + 1 < rows) {
+                    builder.addEdge(x, x + cols);
+                }
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Generates the blocks in pool, block b with the b-th SplittableRandom split from the seed,
+     * and appends them to one builder in block order
+     */
+    private static GraphBuilder runBlocks(ForkJoinPool pool, int order, int nbBlocks, int seed,
+                                          BiFunction<Integer, SplittableRandom, GraphBuilder> block) {
+        SplittableRandom root = new SplittableRandom(seed);
+        List<ForkJoinTask<GraphBuilder>> tasks = new ArrayList<>(nbBlocks);
+        for (int b = 0; b < nbBlocks; b++) {
+            final int index = b;
+            final SplittableRandom rand = root.split();
+            tasks.add(pool.submit(() -> block.apply(index, rand)));
+        }
+        GraphBuilder builder = new GraphBuilder(order);
+        for (int b = 0; b < nbBlocks; b++) {
+            builder.addAll(tasks.get(b).join());
+            tasks.set(b, null);
+        }
+        return builder;
+    }
+
+    public static void main(String[] args) {
+        System.out.println(erdosRenyi(6, 0.4, true, 100001).buildDirectedGraph(false));
+        System.out.println(grid(2, 3).buildUndirectedGraph(false));
+
+        long start = System.nanoTime();
+        GraphBuilder er = erdosRenyi(100_000, 1e-4, false, 100001);
+        GraphBuilder rmat = rmat(17, 1_000_000, 100001);
+        GraphBuilder ba = barabasiAlbert(100_000, 5, 100001);
+        GraphBuilder reg = randomRegular(100_000, 4, 100001);
+        System.out.println("G(n,p) " + er.getNbArcs() + " edges, R-MAT " + rmat.getNbArcs() + " arcs, BA "
+                + ba.getNbArcs() + " edges, regular " + reg.getNbArcs() + " edges in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        for (int threads : new int[]{1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            start = System.nanoTime();
+            CsrDirectedGraph g = rmat(18, 4 << 20, 0.57, 0.19, 0.19, 100001, pool).buildCsr();
+            System.out.println("parallel R-MAT on " + threads + " threads: " + g.getNbArcs() + " arcs, checksum "
+                    + Arrays.hashCode(g.getTargets()) + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            pool.shutdown();
+        }
+    }
+}
@@ -31,11 +31,13 @@ public class GraphTools {
 		int[][] matrix = new int[n][n];
 		if(c){
 			List<Integer> vis = new ArrayList<>();
+			boolean[] visited = new boolean[n];
 			int from = rand.nextInt(n);
 			vis.add(from);
+			visited[from] = true;
 			from = rand.nextInt(n);
 			while(vis.size()<n ){
-				if(!vis.contains(from)){
+				if(!visited[from]){
 					int indDest = rand.nextInt(vis.size());
 					int dest = vis.get(indDest);				
 					if(s) {
@@ -43,6 +45,7 @@ public class GraphTools {
 					}
 					matrix[from][dest] = 1;
 					vis.add(from);
+					visited[from] = true;
 				}
 				from = rand.nextInt(n);				
 			}
@@ -101,11 +104,13 @@ public class GraphTools {
 		Random rand = new Random(seed);
 		if(c){
 			List<Integer> vis = new ArrayList<>();
+			boolean[] visited = new boolean[n];
 			int from = rand.nextInt(n);
 			vis.add(from);
+			visited[from] = true;
 			from = rand.nextInt(n);
 			while(vis.size() < n){
-				if(!vis.contains(from)){
+				if(!visited[from]){
 					int indDest = rand.nextInt(vis.size());
 					int dest = vis.get(indDest);				
 					if(s) {
@@ -113,6 +118,7 @@ public class GraphTools {
 					}
 					matrix[from][dest] = 1;
 					vis.add(from);
+					visited[from] = true;
 				}
 				from = rand.nextInt(n);				
 			}
@@ -0,0 +1,294 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A min-heap of nodes, each node being in the heap at most once with a long priority. The heap is d-ary
+ * (4-ary by default): the children of position i are positions d·i+1 .. d·i+d, which halves the height of a
+ * binary heap and keeps the children of a node in the same cache line. The position of every node is indexed,
+ * so contains is O(1) and decreaseKey O(log n), and a search never inserts a node twice nor skips stale entries.
+ * Everything lives in primitive arrays sized by the number of nodes.
+ */
+public class IndexedDaryHeap implements NodePriorityQueue {
+
+    public static final int DEFAULT_ARITY = 4;
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int arity;
+    private int[] heap;             // node at each position
+    private long[] priorities;      // priority of the node at each position
+    private int[] positions;        // position of each node, -1 if it is not in the heap
+    private int size;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * @param capacity the number of nodes, which are in [0, capacity)
+     */
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * @param capacity the number of nodes, which are in [0, capacity)
+     * @param arity the number of children of each position, at least 2
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("the arity must be at least 2");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.priorities = new long[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public int getArity() {
+        return arity;
+    }
+
+    /**
+     * @return the number of nodes the heap can hold, the nodes being in [0, capacity)
+     */
+    public int getCapacity() {
+        return positions.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    /**
+     * @return the priority of a node of the heap
+     */
+    public long getPriority(int node) {
+        if (positions[node] < 0) {
+            throw new IllegalArgumentException("node " + node + " is not in the heap");
+        }
+        return priorities[positions[node]];
+    }
+
+    /**
+     * @return the node of minimal priority, without removing it
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("the heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * @return the minimal priority
+     */
+    @Override
+    public long peekPriority() {
+        if (size == 0) {
+            throw new IllegalStateException("the heap is empty");
+        }
+        return priorities[0];
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * Adds a node which is not in the heap
+     */
+    public void insert(int node, long priority) {
+        if (positions[node] >= 0) {
+            throw new IllegalArgumentException("node " + node + " is already in the heap");
+        }
+        this.siftUp(size++, node, priority);
+    }
+
+    /**
+     * Lowers the priority of a node of the heap, a priority higher than the current one being an error
+     */
+    public void decreaseKey(int node, long priority) {
+        int pos = positions[node];
+        if (pos < 0) {
+            throw new IllegalArgumentException("node " + node + " is not in the heap");
+        }
+        if (priority > priorities[pos]) {
+            throw new IllegalArgumentException("priority " + priority + " is higher than " + priorities[pos]);
+        }
+        this.siftUp(pos, node, priority);
+    }
+
+    /**
+     * Inserts the node, or lowers its priority if it is in the heap with a higher one
+     * @return false if the node was in the heap with a lower or equal priority, which is left as is
+     */
+    @Override
+    public boolean insertOrDecrease(int node, long priority) {
+        int pos = positions[node];
+        if (pos < 0) {
+            this.siftUp(size++, node, priority);
+            return true;
+        }
+        if (priority >= priorities[pos]) {
+            return false;
+        }
+        this.siftUp(pos, node, priority);
+        return true;
+    }
+
+    /**
+     * Removes the node of minimal priority
+     * @return the removed node, whose priority can be read with peekPriority() before the call
+     */
+    @Override
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("the heap is empty");
+        }
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            this.siftDown(0, heap[size], priorities[size]);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every node, in O(size)
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Makes room for the nodes [0, capacity), keeping the content of the heap
+     */
+    public void ensureCapacity(int capacity) {
+        int old = positions.length;
+        if (capacity <= old) {
+            return;
+        }
+        heap = Arrays.copyOf(heap, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        Arrays.fill(positions, old, capacity, -1);
+    }
+
+    /**
+     * Moves the hole at pos up while its parent has a higher priority, then puts the node in it
+     */
+    private void siftUp(int pos, int node, long priority) {
+        while (pos > 0) {
+            int parent = (pos - 1) / arity;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            this.place(pos, heap[parent], priorities[parent]);
+            pos = parent;
+        }
+        this.place(pos, node, priority);
+    }
+
+    /**
+     * Moves the hole at pos down while its smallest child has a lower priority, then puts the node in it
+     */
+    private void siftDown(int pos, int node, long priority) {
+        while (true) {
+            int first = arity * pos + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            int last = Math.min(first + arity, size);
+            for (int c = first + 1; c < last; c++) {
+                if (priorities[c] < priorities[best]) {
+                    best = c;
+                }
+            }
+            if (priorities[best] >= priority) {
+                break;
+            }
+            this.place(pos, heap[best], priorities[best]);
+            pos = best;
+        }
+        this.place(pos, node, priority);
+    }
+
+    private void place(int pos, int node, long priority) {
+        heap[pos] = node;
+        priorities[pos] = priority;
+        positions[node] = pos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            s.append("(").append(heap[i]).append(",").append(priorities[i]).append(") ");
+        }
+        return s.toString();
+    }
+
+    public static void main(String[] args) {
+        IndexedDaryHeap heap = new IndexedDaryHeap(10);
+        for (int v = 0; v < 10; v++) {
+            heap.insert(v, 100 - 7 * v);
+        }
+        heap.decreaseKey(9, 5);
+        heap.insertOrDecrease(0, 1);
+        System.out.println(heap);
+        StringBuilder order = new StringBuilder();
+        while (!heap.isEmpty()) {
+            order.append(heap.peekPriority()).append(":").append(heap.poll()).append(" ");
+        }
+        System.out.println(order);
+
+        int n = 1 << 20;
+        Random random = new Random(100001);
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+        for (int arity : new int[]{2, 4, 8}) {
+            IndexedDaryHeap h = new IndexedDaryHeap(n, arity);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                h.insert(i, keys[i]);
+            }
+            long previous = Long.MIN_VALUE;
+            boolean sorted = true;
+            while (!h.isEmpty()) {
+                sorted &= h.peekPriority() >= previous;
+                previous = h.peekPriority();
+                h.poll();
+            }
+            System.out.println(n + " nodes through a " + arity + "-ary heap in " + (System.nanoTime() - t0) / 1_000_000
+                    + " ms, sorted: " + sorted);
+        }
+    }
+}
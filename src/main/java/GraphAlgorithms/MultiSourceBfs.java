@@ -0,0 +1,192 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.IUndirectedGraph;
+import AdjacencyList.CsrDirectedGraph;
+
+/**
+ * Multi-source breadth first search (Then et al., MS-BFS): the searches of a batch of 64·k sources run together,
+ * each node holding k long words in which bit i tells whether the search of source i has seen it, visits it
+ * at this level, or visits it at the next one. One scan of the successors of a node then serves all the searches
+ * visiting it. Larger batches are cut in consecutive batches of 64·k sources.
+ */
+public class MultiSourceBfs {
+
+    /**
+     * Receives each node reached by each search, with its depth from the source
+     */
+    public interface Visitor {
+
+        /**
+         * @param source the index of the source in the array of sources
+         */
+        void visit(int source, int node, int depth);
+    }
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final CsrDirectedGraph graph;
+    private int words = 1;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * @param graph converted by CsrDirectedGraph.of, whose predecessor rows are never built since only the
+     * successors are followed
+     */
+    public MultiSourceBfs(IDirectedGraph graph) {
+        this.graph = CsrDirectedGraph.of(graph);
+    }
+
+    /**
+     * @param graph converted by CsrDirectedGraph.of
+     */
+    public MultiSourceBfs(IUndirectedGraph graph) {
+        this.graph = CsrDirectedGraph.of(graph);
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public int getWords() {
+        return words;
+    }
+
+    /**
+     * @param words the number k of long words per node, a batch holding 64·k sources
+     */
+    public void setWords(int words) {
+        if (words < 1 || words > Integer.MAX_VALUE / 64) {
+            throw new IllegalArgumentException("words must be in [1," + Integer.MAX_VALUE / 64 + "]");
+        }
+        this.words = words;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * @return the depth of each node from each source, -1 if not reached, indexed as in sources
+     */
+    public int[][] distances(int[] sources) {
+        int[][] distances = new int[sources.length][graph.getNbNodes()];
+        for (int[] d : distances) {
+            Arrays.fill(d, -1);
+        }
+        this.run(sources, (source, node, depth) -> distances[source][node] = depth);
+        return distances;
+    }
+
+    /**
+     * Calls visitor for every source and every node it reaches, the sources included at depth 0.
+     * Within a batch the calls come level by level.
+     */
+    public void run(int[] sources, Visitor visitor) {
+        int n = graph.getNbNodes();
+        for (int s : sources) {
+            if (s < 0 || s >= n) {
+                throw new IllegalArgumentException("source " + s + " is out of [0," + n + ")");
+            }
+        }
+        long cells = (long) n * words;
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(n + " nodes times " + words + " words do not fit in an array, "
+                    + "use fewer words per node");
+        }
+        int batch = 64 * words;
+        long[] seen = new long[(int) cells];
+        long[] visit = new long[(int) cells];
+        long[] visitNext = new long[(int) cells];
+        for (int first = 0; first < sources.length; first += batch) {
+            int size = Math.min(batch, sources.length - first);
+            if (first > 0) {
+                Arrays.fill(seen, 0L);
+                Arrays.fill(visit, 0L);
+            }
+            this.runBatch(sources, first, size, visitor, seen, visit, visitNext);
+        }
+    }
+
+    /**
+     * The searches of sources[first..first+size-1], with visitNext cleared
+     */
+    private void runBatch(int[] sources, int first, int size, Visitor visitor, long[] seen, long[] visit,
+                          long[] visitNext) {
+        int n = graph.getNbNodes();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        for (int i = 0; i < size; i++) {
+            int cell = sources[first + i] * words + (i >>> 6);
+            seen[cell] |= 1L << i;
+            visit[cell] |= 1L << i;
+            visitor.visit(first + i, sources[first + i], 0);
+        }
+        boolean active = size > 0;
+        for (int depth = 1; active; depth++) {
+            for (int v = 0; v < n; v++) {
+                int base = v * words;
+                for (int w = 0; w < words; w++) {
+                    long bits = visit[base + w];
+                    if (bits == 0) {
+                        continue;
+                    }
+                    for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+                        visitNext[targets[p] * words + w] |= bits;
+                    }
+                }
+            }
+            active = false;
+            for (int v = 0; v < n; v++) {
+                int base = v * words;
+                for (int w = 0; w < words; w++) {
+                    long bits = visitNext[base + w] & ~seen[base + w];
+                    visitNext[base + w] = 0;
+                    visit[base + w] = bits;
+                    if (bits == 0) {
+                        continue;
+                    }
+                    active = true;
+                    seen[base + w] |= bits;
+                    for (long b = bits; b != 0; b &= b - 1) {
+                        visitor.visit(first + (w << 6) + Long.numberOfTrailingZeros(b), v, depth);
+                    }
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        CsrDirectedGraph g = GraphGenerators.rmat(17, 8 << 17, 100001).buildCsr();
+        int[] sources = new int[256];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = i * 97;
+        }
+        MultiSourceBfs msbfs = new MultiSourceBfs(g);
+        DirectionOptimizingBfs single = new DirectionOptimizingBfs(g);
+        single.setAlpha(0);
+
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            long[] farness = new long[sources.length];
+            msbfs.run(sources, (source, node, depth) -> farness[source] += depth);
+            long t1 = System.nanoTime();
+            long[] reference = new long[sources.length];
+            for (int i = 0; i < sources.length; i++) {
+                for (int d : single.run(sources[i]).getDepths()) {
+                    reference[i] += Math.max(d, 0);
+                }
+            }
+            long t2 = System.nanoTime();
+            System.out.println(sources.length + " searches together in " + (t1 - t0) / 1_000_000 + " ms, one by one in "
+                    + (t2 - t1) / 1_000_000 + " ms, same farness: " + Arrays.equals(farness, reference));
+        }
+    }
+}
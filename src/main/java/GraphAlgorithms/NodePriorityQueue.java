@@ -0,0 +1,34 @@
+package GraphAlgorithms;
+
+/**
+ * A min-priority queue of nodes, each node being in the queue at most once with a long priority,
+ * as used by the shortest paths searches. See IndexedDaryHeap and BucketQueue.
+ */
+public interface NodePriorityQueue {
+
+    boolean isEmpty();
+
+    boolean contains(int node);
+
+    /**
+     * Inserts the node, or lowers its priority if it is in the queue with a higher one
+     * @return false if the node was in the queue with a lower or equal priority, which is left as is
+     */
+    boolean insertOrDecrease(int node, long priority);
+
+    /**
+     * @return the minimal priority
+     */
+    long peekPriority();
+
+    /**
+     * Removes the node of minimal priority
+     * @return the removed node
+     */
+    int poll();
+
+    /**
+     * Removes every node
+     */
+    void clear();
+}
@@ -0,0 +1,228 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.IUndirectedGraph;
+import AdjacencyList.CsrDirectedGraph;
+
+/**
+ * Level synchronous breadth first search on a ForkJoinPool. The frontier of a level is cut in chunks expanded
+ * in parallel. A node is claimed by setting its bit in a shared bitmap with a compare-and-set on its long word,
+ * so exactly one task writes its parent and depth. Each chunk collects the nodes it claims in its own buffer,
+ * and the buffers are concatenated in chunk order to make the next frontier. Levels whose frontier is under
+ * the sequential threshold are expanded by the calling thread. The depths are those of any BFS, the parents
+ * may depend on the scheduling.
+ */
+public class ParallelBfs {
+
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 10;
+    private static final int CHUNK = 256;
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final CsrDirectedGraph graph;
+    private final ForkJoinPool pool;
+    private int sequentialThreshold = DEFAULT_SEQUENTIAL_THRESHOLD;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * @param graph converted by CsrDirectedGraph.of, whose predecessor rows are never built since only the
+     * successors are followed
+     */
+    public ParallelBfs(IDirectedGraph graph, ForkJoinPool pool) {
+        this.graph = CsrDirectedGraph.of(graph);
+        this.pool = pool;
+    }
+
+    /**
+     * @param graph converted by CsrDirectedGraph.of
+     */
+    public ParallelBfs(IUndirectedGraph graph, ForkJoinPool pool) {
+        this.graph = CsrDirectedGraph.of(graph);
+        this.pool = pool;
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public int getSequentialThreshold() {
+        return sequentialThreshold;
+    }
+
+    /**
+     * @param threshold the frontiers smaller than it are expanded sequentially, Integer.MAX_VALUE for a serial search
+     */
+    public void setSequentialThreshold(int threshold) {
+        this.sequentialThreshold = threshold;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    public BfsResult run(int source) {
+        int n = graph.getNbNodes();
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("source " + source + " is out of [0," + n + ")");
+        }
+        int[] parents = new int[n];
+        int[] depths = new int[n];
+        Arrays.fill(parents, -1);
+        Arrays.fill(depths, -1);
+        AtomicLongArray visited = new AtomicLongArray((n + 63) >>> 6);
+        claim(visited, source);
+        parents[source] = source;
+        depths[source] = 0;
+
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] frontier = {source};
+        int reached = 1;
+        for (int level = 0; frontier.length > 0; level++) {
+            if (frontier.length < sequentialThreshold) {
+                int[] next = new int[16];
+                int size = 0;
+                for (int u : frontier) {
+                    for (int p = offsets[u]; p < offsets[u + 1]; p++) {
+                        int v = targets[p];
+                        if (claim(visited, v)) {
+                            parents[v] = u;
+                            depths[v] = level + 1;
+                            if (size == next.length) {
+                                next = Arrays.copyOf(next, size * 2);
+                            }
+                            next[size++] = v;
+                        }
+                    }
+                }
+                frontier = Arrays.copyOf(next, size);
+            } else {
+                int nbChunks = (frontier.length + CHUNK - 1) / CHUNK;
+                int[][] parts = new int[nbChunks][];
+                int[] sizes = new int[nbChunks];
+                pool.invoke(new ExpandTask(frontier, 0, nbChunks, level + 1, visited, parents, depths, parts, sizes));
+                int total = 0;
+                for (int size : sizes) {
+                    total += size;
+                }
+                int[] next = new int[total];
+                int pos = 0;
+                for (int c = 0; c < nbChunks; c++) {
+                    System.arraycopy(parts[c], 0, next, pos, sizes[c]);
+                    pos += sizes[c];
+                }
+                frontier = next;
+            }
+            reached += frontier.length;
+        }
+        return new BfsResult(source, parents, depths, reached);
+    }
+
+    /**
+     * Sets the bit of v in visited
+     * @return true if this call set it, false if it was already set
+     */
+    private static boolean claim(AtomicLongArray visited, int v) {
+        int w = v >>> 6;
+        long mask = 1L << v;
+        long word;
+        do {
+            word = visited.get(w);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!visited.compareAndSet(w, word, word | mask));
+        return true;
+    }
+
+    /**
+     * Expands the chunks [from, to) of the frontier, splitting the range in two while it holds several chunks
+     */
+    private class ExpandTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+        private final int depth;
+        private final AtomicLongArray visited;
+        private final int[] parents;
+        private final int[] depths;
+        private final int[][] parts;
+        private final int[] sizes;
+
+        ExpandTask(int[] frontier, int from, int to, int depth, AtomicLongArray visited, int[] parents,
+                   int[] depths, int[][] parts, int[] sizes) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+            this.visited = visited;
+            this.parents = parents;
+            this.depths = depths;
+            this.parts = parts;
+            this.sizes = sizes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ExpandTask(frontier, from, mid, depth, visited, parents, depths, parts, sizes),
+                        new ExpandTask(frontier, mid, to, depth, visited, parents, depths, parts, sizes));
+                return;
+            }
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int[] buffer = new int[CHUNK];
+            int size = 0;
+            for (int k = from * CHUNK; k < Math.min(frontier.length, (from + 1) * CHUNK); k++) {
+                int u = frontier[k];
+                for (int p = offsets[u]; p < offsets[u + 1]; p++) {
+                    int v = targets[p];
+                    if (claim(visited, v)) {
+                        parents[v] = u;
+                        depths[v] = depth;
+                        if (size == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, size * 2);
+                        }
+                        buffer[size++] = v;
+                    }
+                }
+            }
+            parts[from] = buffer;
+            sizes[from] = size;
+        }
+    }
+
+    public static void main(String[] args) {
+        CsrDirectedGraph g = GraphGenerators.rmat(20, 16 << 20, 100001).buildCsr();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        ParallelBfs parallel = new ParallelBfs(g, pool);
+        ParallelBfs serial = new ParallelBfs(g, pool);
+        serial.setSequentialThreshold(Integer.MAX_VALUE);
+
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            BfsResult res = parallel.run(0);
+            long t1 = System.nanoTime();
+            BfsResult ref = serial.run(0);
+            long t2 = System.nanoTime();
+            System.out.println(res.getNbReached() + " nodes reached on " + pool.getParallelism() + " threads in "
+                    + (t1 - t0) / 1_000_000 + " ms, serially in " + (t2 - t1) / 1_000_000 + " ms, same depths: "
+                    + Arrays.equals(res.getDepths(), ref.getDepths()));
+        }
+        pool.shutdown();
+    }
+}
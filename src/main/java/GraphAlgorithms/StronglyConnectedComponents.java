@@ -0,0 +1,577 @@
+package GraphAlgorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import Abstraction.IDirectedGraph;
+import AdjacencyList.CsrDirectedGraph;
+
+/**
+ * Strongly connected components of a directed graph, given as an array holding the component id of each node.
+ * Both algorithms use explicit int stacks, so long paths do not overflow the call stack.
+ * The sequential one is Tarjan's algorithm, which only follows the successors through forEachSuccessor, so it
+ * runs on the graph as it is, without any copy. The parallel one is
+ * Forward-Backward: the nodes both reachable from a pivot and reaching it form its component, and the nodes
+ * reachable only one way, or not at all, form three independent subproblems solved in parallel. Each subproblem
+ * is first trimmed of the nodes without predecessor or successor inside it, which are components on their own,
+ * and the pivot is the node of largest in-degree times out-degree, or a random one after a split which left
+ * almost all the nodes in one part. The task goes on with the largest part and forks the two others, so the
+ * depth of the forks stays logarithmic. The searches read the CSR of the graph and its predecessor rows.
+ */
+public class StronglyConnectedComponents {
+
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 12;
+    private static final int TRIMMED = -2;     // the color of the nodes removed by the trimming
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    private StronglyConnectedComponents() {
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * Tarjan's algorithm, in O(n + m) plus the cost of forEachSuccessor on g
+     * @return the component id of each node, the ids in [0, c) numbering the components in reverse topological order
+     */
+    public static int[] tarjan(IDirectedGraph g) {
+        int n = g.getNbNodes();
+        int[] all = new int[n];
+        for (int i = 0; i < n; i++) {
+            all[i] = i;
+        }
+        int[] components = new int[n];
+        Tarjan t = new Tarjan(g, null, 0, components, new AtomicInteger());
+        t.run(all);
+        return components;
+    }
+
+    /**
+     * Forward-Backward on pool, the subproblems under DEFAULT_SEQUENTIAL_THRESHOLD nodes being solved by Tarjan
+     * @return the component id of each node, the ids in [0, c) being in no particular order
+     */
+    public static int[] forwardBackward(IDirectedGraph g, ForkJoinPool pool) {
+        return forwardBackward(g, pool, DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    public static int[] forwardBackward(IDirectedGraph g, ForkJoinPool pool, int sequentialThreshold) {
+        CsrDirectedGraph csr = CsrDirectedGraph.of(g);
+        int n = csr.getNbNodes();
+        int[] all = new int[n];
+        for (int i = 0; i < n; i++) {
+            all[i] = i;
+        }
+        ForwardBackward search = new ForwardBackward(csr, Math.max(1, sequentialThreshold));
+        pool.invoke(new ForwardBackwardTask(search, all, 0));
+        return search.components;
+    }
+
+    /**
+     * @return the number of components of an array of component ids
+     */
+    public static int count(int[] components) {
+        int max = -1;
+        for (int c : components) {
+            max = Math.max(max, c);
+        }
+        return max + 1;
+    }
+
+    /**
+     * @return the nodes of each component, indexed by component id, sorted by label
+     */
+    public static int[][] groups(int[] components) {
+        int[] sizes = new int[count(components)];
+        for (int c : components) {
+            sizes[c]++;
+        }
+        int[][] groups = new int[sizes.length][];
+        for (int c = 0; c < sizes.length; c++) {
+            groups[c] = new int[sizes[c]];
+        }
+        Arrays.fill(sizes, 0);
+        for (int i = 0; i < components.length; i++) {
+            groups[components[i]][sizes[components[i]]++] = i;
+        }
+        return groups;
+    }
+
+    /**
+     * Iterative Tarjan on the nodes of one color, or on all the nodes if colors is null.
+     * The arrays of index and low link are local to the nodes of that color. A node entering the search pushes
+     * its finish mark ~v then its successors not met yet, in their order, onto a stack of candidates; a back arc
+     * to a node still on the stack of the components updates the low link as soon as it is read.
+     */
+    private static final class Tarjan implements IntConsumer {
+
+        private final IDirectedGraph g;
+        private final int[] colors;
+        private final int color;
+        private final int[] components;
+        private final AtomicInteger nextComponent;
+
+        // state of the run
+        private IntIntIndex indices;
+        private int[] low;
+        private boolean[] onStack;
+        private int[] callStack;
+        private int callTop;
+        private int[] sccStack;
+        private int sccTop;
+        private int[] candidates = new int[16];    // the nodes to enter, and ~v to finish v
+        private int top;
+        private int counter;
+        private int current;                        // the local index of the node whose successors are read
+
+        Tarjan(IDirectedGraph g, int[] colors, int color, int[] components, AtomicInteger nextComponent) {
+            this.g = g;
+            this.colors = colors;
+            this.color = color;
+            this.components = components;
+            this.nextComponent = nextComponent;
+        }
+
+        /**
+         * @param nodes the nodes to split in components
+         */
+        void run(int[] nodes) {
+            int size = nodes.length;
+            int n = g.getNbNodes();
+            indices = new IntIntIndex(colors == null || size >= n / 8 ? new int[n] : null, size);
+            low = new int[size];
+            onStack = new boolean[size];
+            callStack = new int[size];
+            sccStack = new int[size];
+            callTop = 0;
+            sccTop = 0;
+            top = 0;
+            counter = 0;
+            for (int root : nodes) {
+                if (indices.get(root) >= 0) {
+                    continue;
+                }
+                this.enter(root);
+                while (top > 0) {
+                    int e = candidates[--top];
+                    if (e < 0) {
+                        this.finish(~e);
+                        continue;
+                    }
+                    int iw = indices.get(e);
+                    if (iw < 0) {
+                        this.enter(e);
+                    } else if (onStack[iw]) {
+                        int iv = indices.get(callStack[callTop - 1]);
+                        low[iv] = Math.min(low[iv], iw);
+                    }
+                }
+            }
+            indices = null;
+            low = null;
+            onStack = null;
+            callStack = null;
+            sccStack = null;
+        }
+
+        private void enter(int v) {
+            int iv = counter++;
+            indices.put(v, iv);
+            low[iv] = iv;
+            onStack[iv] = true;
+            callStack[callTop++] = v;
+            sccStack[sccTop++] = v;
+            this.push(~v);
+            current = iv;
+            int first = top;
+            g.forEachSuccessor(v, this);
+            // the successors are popped in their order
+            for (int i = first, j = top - 1; i < j; i++, j--) {
+                int t = candidates[i];
+                candidates[i] = candidates[j];
+                candidates[j] = t;
+            }
+        }
+
+        private void finish(int v) {
+            callTop--;
+            int iv = indices.get(v);
+            if (low[iv] == iv) {
+                int c = nextComponent.getAndIncrement();
+                int w;
+                do {
+                    w = sccStack[--sccTop];
+                    onStack[indices.get(w)] = false;
+                    components[w] = c;
+                } while (w != v);
+            }
+            if (callTop > 0) {
+                int iu = indices.get(callStack[callTop - 1]);
+                low[iu] = Math.min(low[iu], low[iv]);
+            }
+        }
+
+        /**
+         * Reads a successor of the node entered last
+         */
+        @Override
+        public void accept(int w) {
+            if (colors != null && colors[w] != color) {
+                return;
+            }
+            int iw = indices.get(w);
+            if (iw < 0) {
+                this.push(w);
+            } else if (onStack[iw]) {
+                low[current] = Math.min(low[current], iw);
+            }
+        }
+
+        private void push(int e) {
+            if (top == candidates.length) {
+                candidates = Arrays.copyOf(candidates, (int) Math.min(Integer.MAX_VALUE - 8, 2L * top));
+            }
+            candidates[top++] = e;
+        }
+    }
+
+    /**
+     * The local index of the nodes of a subproblem: a direct array when it is large enough compared to the graph,
+     * else an open addressing table sized after the subproblem.
+     */
+    private static final class IntIntIndex {
+
+        private final int[] direct;
+        private final int[] keys;
+        private final int[] values;
+        private final int mask;
+
+        IntIntIndex(int[] direct, int size) {
+            this.direct = direct;
+            if (direct != null) {
+                this.keys = null;
+                this.values = null;
+                this.mask = 0;
+            } else {
+                int capacity = Integer.highestOneBit(Math.max(4, size * 2) - 1) << 1;
+                this.keys = new int[capacity];
+                this.values = new int[capacity];
+                this.mask = capacity - 1;
+            }
+        }
+
+        /**
+         * @return the index of node, -1 if it has none
+         */
+        int get(int node) {
+            if (direct != null) {
+                return direct[node] - 1;
+            }
+            for (int s = slot(node); ; s = (s + 1) & mask) {
+                if (keys[s] == 0) {
+                    return -1;
+                }
+                if (keys[s] == node + 1) {
+                    return values[s];
+                }
+            }
+        }
+
+        void put(int node, int index) {
+            if (direct != null) {
+                direct[node] = index + 1;
+                return;
+            }
+            int s = slot(node);
+            while (keys[s] != 0) {
+                s = (s + 1) & mask;
+            }
+            keys[s] = node + 1;
+            values[s] = index;
+        }
+
+        private int slot(int node) {
+            int h = node * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+
+    /**
+     * The state shared by the tasks of one Forward-Backward, each task working on the nodes of its own colors
+     */
+    private static final class ForwardBackward {
+
+        private final CsrDirectedGraph g;
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] predOffsets;
+        private final int[] sources;
+        private final int threshold;
+        private final int[] colors;         // the subproblem of each node, all start in the subproblem 0
+        private final int[] inDegrees;      // the number of predecessors of the same color, while trimming
+        private final int[] outDegrees;
+        private final int[] components;
+        private final AtomicInteger nextColor = new AtomicInteger(1);
+        private final AtomicInteger nextComponent = new AtomicInteger();
+
+        ForwardBackward(CsrDirectedGraph g, int threshold) {
+            int n = g.getNbNodes();
+            this.g = g;
+            this.offsets = g.getOffsets();
+            this.targets = g.getTargets();
+            this.predOffsets = g.getPredOffsets();
+            this.sources = g.getSources();
+            this.threshold = threshold;
+            this.colors = new int[n];
+            this.inDegrees = new int[n];
+            this.outDegrees = new int[n];
+            this.components = new int[n];
+        }
+
+        /**
+         * Removes from the nodes of color the ones without predecessor or successor of the same color, again
+         * and again, each being a component on its own, and leaves the degrees of the others in the color
+         * @return the nodes left
+         */
+        int[] trim(int[] nodes, int color) {
+            for (int v : nodes) {
+                inDegrees[v] = this.degree(v, predOffsets, sources, color);
+                outDegrees[v] = this.degree(v, offsets, targets, color);
+            }
+            int[] removed = new int[nodes.length];
+            int tail = 0;
+            for (int v : nodes) {
+                if (inDegrees[v] == 0 || outDegrees[v] == 0) {
+                    colors[v] = TRIMMED;
+                    removed[tail++] = v;
+                }
+            }
+            for (int head = 0; head < tail; head++) {
+                int v = removed[head];
+                for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+                    int w = targets[p];
+                    if (colors[w] == color && --inDegrees[w] == 0) {
+                        colors[w] = TRIMMED;
+                        removed[tail++] = w;
+                    }
+                }
+                for (int p = predOffsets[v]; p < predOffsets[v + 1]; p++) {
+                    int w = sources[p];
+                    if (colors[w] == color && --outDegrees[w] == 0) {
+                        colors[w] = TRIMMED;
+                        removed[tail++] = w;
+                    }
+                }
+            }
+            if (tail == 0) {
+                return nodes;
+            }
+            int first = nextComponent.getAndAdd(tail);
+            for (int k = 0; k < tail; k++) {
+                components[removed[k]] = first + k;
+            }
+            int[] left = new int[nodes.length - tail];
+            int size = 0;
+            for (int v : nodes) {
+                if (colors[v] == color) {
+                    left[size++] = v;
+                }
+            }
+            return left;
+        }
+
+        private int degree(int v, int[] rowOffsets, int[] adjacency, int color) {
+            int d = 0;
+            for (int p = rowOffsets[v]; p < rowOffsets[v + 1]; p++) {
+                if (colors[adjacency[p]] == color) {
+                    d++;
+                }
+            }
+            return d;
+        }
+
+        /**
+         * @return the node of largest in-degree times out-degree in its color, as left by trim
+         */
+        int densest(int[] nodes) {
+            int best = nodes[0];
+            long max = -1;
+            for (int v : nodes) {
+                long product = (long) inDegrees[v] * outDegrees[v];
+                if (product > max) {
+                    max = product;
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Iterative search from start over the nodes of color from, recoloring them to. If other is not -1, the nodes
+         * of color other are also followed and recolored to otherTo, without being counted.
+         * @return the number of nodes recolored to
+         */
+        int reach(int start, int[] rowOffsets, int[] adjacency, int from, int to, int other, int otherTo) {
+            int[] stack = new int[16];
+            int top = 0;
+            int count = 1;
+            colors[start] = to;
+            stack[top++] = start;
+            while (top > 0) {
+                int v = stack[--top];
+                for (int p = rowOffsets[v]; p < rowOffsets[v + 1]; p++) {
+                    int w = adjacency[p];
+                    int cw = colors[w];
+                    if (cw == from) {
+                        colors[w] = to;
+                        count++;
+                    } else if (other != -1 && cw == other) {
+                        colors[w] = otherTo;
+                    } else {
+                        continue;
+                    }
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = w;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Splits the nodes of one color: trims them, takes the component of a pivot, then goes on with the largest
+     * of the three other parts and forks the two smaller ones
+     */
+    private static final class ForwardBackwardTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ForwardBackward search;
+        private final int[] nodes;
+        private final int color;
+
+        ForwardBackwardTask(ForwardBackward search, int[] nodes, int color) {
+            this.search = search;
+            this.nodes = nodes;
+            this.color = color;
+        }
+
+        @Override
+        protected void compute() {
+            ForwardBackward s = search;
+            int[] colors = s.colors;
+            List<ForwardBackwardTask> forked = new ArrayList<>();
+            int[] part = nodes;
+            int c = color;
+            boolean badPivot = false;
+            while (true) {
+                part = s.trim(part, c);
+                if (part.length <= s.threshold) {
+                    if (part.length > 0) {
+                        new Tarjan(s.g, colors, c, s.components, s.nextComponent).run(part);
+                    }
+                    break;
+                }
+                // after a bad split the densest node may well be as bad again, a random one is not on average
+                int pivot = badPivot ? part[ThreadLocalRandom.current().nextInt(part.length)] : s.densest(part);
+                int forward = s.nextColor.getAndIncrement();
+                int both = s.nextColor.getAndIncrement();
+                int backward = s.nextColor.getAndIncrement();
+                // the backward search recolors to both the nodes of the forward search it reaches,
+                // to backward the others
+                int nbForward = s.reach(pivot, s.offsets, s.targets, c, forward, -1, 0);
+                int nbBoth = s.reach(pivot, s.predOffsets, s.sources, forward, both, c, backward);
+
+                int nbBackward = 0;
+                int nbRest = 0;
+                for (int v : part) {
+                    if (colors[v] == backward) {
+                        nbBackward++;
+                    } else if (colors[v] == c) {
+                        nbRest++;
+                    }
+                }
+                int component = s.nextComponent.getAndIncrement();
+                int[] onlyForward = new int[nbForward - nbBoth];
+                int[] onlyBackward = new int[nbBackward];
+                int[] rest = new int[nbRest];
+                int nbOnlyForward = 0;
+                nbBackward = 0;
+                nbRest = 0;
+                for (int v : part) {
+                    int cv = colors[v];
+                    if (cv == both) {
+                        s.components[v] = component;
+                    } else if (cv == forward) {
+                        onlyForward[nbOnlyForward++] = v;
+                    } else if (cv == backward) {
+                        onlyBackward[nbBackward++] = v;
+                    } else {
+                        rest[nbRest++] = v;
+                    }
+                }
+                int[][] parts = {onlyForward, onlyBackward, rest};
+                int[] partColors = {forward, backward, c};
+                int largest = 0;
+                for (int k = 1; k < 3; k++) {
+                    if (parts[k].length > parts[largest].length) {
+                        largest = k;
+                    }
+                }
+                for (int k = 0; k < 3; k++) {
+                    if (k != largest && parts[k].length > 0) {
+                        ForwardBackwardTask task = new ForwardBackwardTask(s, parts[k], partColors[k]);
+                        task.fork();
+                        forked.add(task);
+                    }
+                }
+                badPivot = parts[largest].length > part.length - part.length / 16;
+                part = parts[largest];
+                c = partColors[largest];
+            }
+            for (ForwardBackwardTask task : forked) {
+                task.join();
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = 3_000_000;
+        GraphBuilder chain = new GraphBuilder(n);
+        for (int i = 0; i + 1 < n; i++) {
+            chain.addArc(i, i + 1);
+        }
+        chain.addArc(n - 1, n / 2);
+        CsrDirectedGraph g = chain.buildCsr();
+        long t0 = System.nanoTime();
+        int[] sequential = tarjan(g);
+        long t1 = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        int[] parallel = forwardBackward(g, pool);
+        long t2 = System.nanoTime();
+        System.out.println("chain of " + n + " nodes: " + count(sequential) + " components by Tarjan in "
+                + (t1 - t0) / 1_000_000 + " ms, " + count(parallel) + " by Forward-Backward in "
+                + (t2 - t1) / 1_000_000 + " ms");
+
+        CsrDirectedGraph rmat = GraphGenerators.rmat(18, 8 << 18, 100001).buildCsr();
+        t0 = System.nanoTime();
+        sequential = tarjan(rmat);
+        t1 = System.nanoTime();
+        parallel = forwardBackward(rmat, pool);
+        t2 = System.nanoTime();
+        System.out.println("R-MAT: " + count(sequential) + " components by Tarjan in " + (t1 - t0) / 1_000_000
+                + " ms, " + count(parallel) + " by Forward-Backward in " + (t2 - t1) / 1_000_000 + " ms");
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,411 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.IUndirectedGraph;
+import AdjacencyList.DirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedGraph;
+
+/**
+ * Lazy breadth first and depth first traversals of a graph. The nodes are produced one at a time, by an iterator,
+ * an IntStream or calls to a Visitor which can stop the traversal, so a caller looking for the first k nodes or
+ * for a target only pays for the nodes it gets. The graph is read in place through forEachSuccessor (forEachNeighbour
+ * for an undirected graph), so nothing is converted beforehand: the cost is the rows of the nodes reached, in the
+ * order the graph gives them. The depth first traversals keep a stack of candidates, the successors of each node
+ * being pushed in reverse order and skipped when they are popped already visited, which gives the order of the
+ * recursive traversal without having to resume a row. Every traversal runs in the workspace of the calling thread,
+ * see TraversalWorkspace, an iterator holding it until it is exhausted.
+ */
+public class Traversal {
+
+    /**
+     * What a visitor tells the traversal to do next
+     */
+    public enum Action {
+        CONTINUE,
+        STOP
+    }
+
+    /**
+     * Receives the events of a traversal, both continuing by default
+     */
+    public interface Visitor {
+
+        /**
+         * Called when node is reached for the first time
+         * @param parent the node from which it was reached, -1 for the source
+         * @param depth its depth in the traversal tree
+         */
+        default Action onDiscover(int node, int parent, int depth) {
+            return Action.CONTINUE;
+        }
+
+        /**
+         * Called when all the successors of node have been scanned
+         */
+        default Action onFinish(int node) {
+            return Action.CONTINUE;
+        }
+    }
+
+    /**
+     * Scans the successors of a node
+     */
+    private interface Rows {
+        void forEach(int x, IntConsumer action);
+    }
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int order;
+    private final Rows rows;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    public Traversal(IDirectedGraph graph) {
+        this(graph.getNbNodes(), graph::forEachSuccessor);
+    }
+
+    public Traversal(IUndirectedGraph graph) {
+        this(graph.getNbNodes(), graph::forEachNeighbour);
+    }
+
+    private Traversal(int order, Rows rows) {
+        this.order = order;
+        this.rows = rows;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * @return the nodes reachable from source in breadth first order, the successors of a node being scanned
+     * only when the next node is asked for
+     */
+    public PrimitiveIterator.OfInt breadthFirst(int source) {
+        return new BreadthFirstIterator(this.check(source));
+    }
+
+    /**
+     * @return the nodes reachable from source in depth first prefix order, the successors of a node being
+     * scanned only when the next node is asked for
+     */
+    public PrimitiveIterator.OfInt depthFirst(int source) {
+        return new DepthFirstIterator(this.check(source));
+    }
+
+    public IntStream breadthFirstStream(int source) {
+        return stream(breadthFirst(source));
+    }
+
+    public IntStream depthFirstStream(int source) {
+        return stream(depthFirst(source));
+    }
+
+    private static IntStream stream(PrimitiveIterator.OfInt it) {
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(it,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Breadth first traversal from source: a node is discovered when it enters the queue and finished when
+     * it leaves it, once its successors are discovered. When the visitor stops the traversal, the rest of the
+     * row being scanned is skipped.
+     * @return false if the visitor stopped the traversal
+     */
+    public boolean breadthFirst(int source, Visitor visitor) {
+        this.check(source);
+        TraversalWorkspace ws = TraversalWorkspace.acquire(order);
+        try {
+            Queue queue = new Queue(ws, visitor);
+            queue.start(source);
+            if (queue.stopped) {
+                return false;
+            }
+            while (queue.head < queue.tail) {
+                int u = queue.expand();
+                if (queue.stopped || visitor.onFinish(u) == Action.STOP) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            ws.release();
+        }
+    }
+
+    /**
+     * Depth first traversal from source: a node is discovered when it is first popped, then a mark below its
+     * successors finishes it once they are all done
+     * @return false if the visitor stopped the traversal
+     */
+    public boolean depthFirst(int source, Visitor visitor) {
+        this.check(source);
+        TraversalWorkspace ws = TraversalWorkspace.acquire(order);
+        try {
+            Stack stack = new Stack(ws);
+            stack.push(source, -1);
+            while (stack.top > 0) {
+                int top = --stack.top;
+                int entry = stack.entries[top];
+                int parent = stack.parents[top];
+                if (entry < 0) {
+                    if (visitor.onFinish(~entry) == Action.STOP) {
+                        return false;
+                    }
+                    continue;
+                }
+                int depth = parent < 0 ? 0 : ws.getDistance(parent) + 1;
+                if (!ws.visit(entry, parent, depth)) {
+                    continue;
+                }
+                if (visitor.onDiscover(entry, parent, depth) == Action.STOP) {
+                    return false;
+                }
+                stack.push(~entry, parent);
+                stack.expand(entry);
+            }
+            return true;
+        } finally {
+            ws.release();
+        }
+    }
+
+    private int check(int source) {
+        if (source < 0 || source >= order) {
+            throw new IllegalArgumentException("source " + source + " is out of [0," + order + ")");
+        }
+        return source;
+    }
+
+    /**
+     * The queue of a breadth first traversal in a workspace, which discovers the successors given to it
+     */
+    private final class Queue implements IntConsumer {
+
+        private final TraversalWorkspace ws;
+        private final int[] nodes;
+        private final Visitor visitor;      // null for an iterator
+        private int head;
+        private int tail;
+        private int parent;
+        private int depth;
+        private boolean stopped;
+
+        Queue(TraversalWorkspace ws, Visitor visitor) {
+            this.ws = ws;
+            this.nodes = ws.getQueue();
+            this.visitor = visitor;
+        }
+
+        void start(int source) {
+            parent = -1;
+            depth = 0;
+            this.accept(source);
+        }
+
+        /**
+         * Takes the next node of the queue and discovers its successors
+         * @return the node
+         */
+        int expand() {
+            int u = nodes[head++];
+            this.scan(u);
+            return u;
+        }
+
+        /**
+         * Discovers the successors of u
+         */
+        void scan(int u) {
+            parent = u;
+            depth = ws.getDistance(u) + 1;
+            rows.forEach(u, this);
+        }
+
+        @Override
+        public void accept(int v) {
+            if (!stopped && ws.visit(v, parent, depth)) {
+                nodes[tail++] = v;
+                if (visitor != null && visitor.onDiscover(v, parent, depth) == Action.STOP) {
+                    stopped = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * The stack of candidates of a depth first traversal in a workspace, each entry with the node which pushed
+     * it, a negative entry ~v marking the end of the successors of v
+     */
+    private final class Stack implements IntConsumer {
+
+        private final TraversalWorkspace ws;
+        private int[] entries;
+        private int[] parents;
+        private int top;
+        private int parent;
+
+        Stack(TraversalWorkspace ws) {
+            this.ws = ws;
+            this.entries = ws.getQueue();
+            this.parents = ws.getPositions();
+        }
+
+        void push(int entry, int from) {
+            if (top == entries.length) {
+                ws.ensureStackCapacity(top + 1);
+                entries = ws.getQueue();
+                parents = ws.getPositions();
+            }
+            entries[top] = entry;
+            parents[top++] = from;
+        }
+
+        /**
+         * Pushes the successors of u not visited yet, the first one on top
+         */
+        void expand(int u) {
+            int first = top;
+            parent = u;
+            rows.forEach(u, this);
+            for (int i = first, j = top - 1; i < j; i++, j--) {
+                int e = entries[i];
+                entries[i] = entries[j];
+                entries[j] = e;
+            }
+        }
+
+        @Override
+        public void accept(int v) {
+            if (!ws.isVisited(v)) {
+                this.push(v, parent);
+            }
+        }
+    }
+
+    private class BreadthFirstIterator implements PrimitiveIterator.OfInt {
+
+        private TraversalWorkspace ws;
+        private final Queue queue;
+        private boolean pending;        // the successors of the last node returned are still to scan
+
+        BreadthFirstIterator(int source) {
+            this.ws = TraversalWorkspace.acquire(order);
+            this.queue = new Queue(ws, null);
+            queue.start(source);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending) {
+                pending = false;
+                queue.scan(queue.nodes[queue.head - 1]);
+            }
+            if (queue.head < queue.tail) {
+                return true;
+            }
+            if (ws != null) {
+                ws.release();
+                ws = null;
+            }
+            return false;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            pending = true;
+            return queue.nodes[queue.head++];
+        }
+    }
+
+    private class DepthFirstIterator implements PrimitiveIterator.OfInt {
+
+        private TraversalWorkspace ws;
+        private final Stack stack;
+        private int last = -1;          // the last node returned, whose successors are still to push
+        private int next = -1;          // the next node to return, -1 if it is not searched yet
+
+        DepthFirstIterator(int source) {
+            this.ws = TraversalWorkspace.acquire(order);
+            this.stack = new Stack(ws);
+            stack.push(source, -1);
+        }
+
+        /**
+         * @return the next node in prefix order, or -1 at the end
+         */
+        private int advance() {
+            if (last >= 0) {
+                stack.expand(last);
+                last = -1;
+            }
+            while (stack.top > 0) {
+                int top = --stack.top;
+                int v = stack.entries[top];
+                if (ws.visit(v)) {
+                    return v;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == -1 && ws != null) {
+                next = advance();
+                if (next == -1) {
+                    ws.release();
+                    ws = null;
+                }
+            }
+            return next != -1;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = -1;
+            return last;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[][] matrix = GraphTools.generateGraphData(10, 20, false, false, false, 100001);
+        Traversal t = new Traversal(new DirectedGraph(matrix));
+        System.out.println("first 5 in breadth first order: " + Arrays.toString(t.breadthFirstStream(0).limit(5).toArray()));
+        Traversal tm = new Traversal(new AdjacencyMatrixDirectedGraph(matrix));
+        System.out.println("depth first order: " + Arrays.toString(tm.depthFirstStream(0).toArray()));
+
+        final int target = 7;
+        t.depthFirst(0, new Visitor() {
+            @Override
+            public Action onDiscover(int node, int parent, int depth) {
+                if (node == target) {
+                    System.out.println("found " + target + " at depth " + depth + " from " + parent);
+                    return Action.STOP;
+                }
+                return Action.CONTINUE;
+            }
+        });
+    }
+}
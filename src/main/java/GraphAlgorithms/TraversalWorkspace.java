@@ -0,0 +1,176 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+
+/**
+ * The arrays of a traversal, allocated once and reused: a queue (or stack) of nodes, the positions of the nodes
+ * of a stack in their adjacency, and per node a visited mark, a distance and a parent. The marks are epoch stamps:
+ * a node is visited if its stamp equals the current epoch, so reset() clears all the marks by incrementing the
+ * epoch, in O(1). The distance and parent of a node are only meaningful once it is visited.
+ * acquire() lends the workspace of the calling thread, and a new one if it is already lent, so repeated
+ * traversals on a thread allocate nothing once the arrays are large enough. A workspace never released, by an
+ * iterator left unfinished for instance, is replaced in the pool by the next one released. A workspace only
+ * goes back to the pool of the thread which acquired it, even if another thread releases it.
+ */
+public final class TraversalWorkspace {
+
+    private static final ThreadLocal<TraversalWorkspace> POOL = ThreadLocal.withInitial(() -> new TraversalWorkspace(0));
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private int[] stamps;
+    private int epoch;
+    private int[] queue;
+    private int[] positions;
+    private int[] distances;
+    private int[] parents;
+    private boolean lent;
+    private Thread owner;       // the thread which acquired the workspace, whose pool it may go back to
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * @param capacity the number of nodes of the largest graph expected, the arrays grow on reset otherwise
+     */
+    public TraversalWorkspace(int capacity) {
+        this.stamps = new int[capacity];
+        this.queue = new int[capacity];
+        this.positions = new int[capacity];
+        this.distances = new int[capacity];
+        this.parents = new int[capacity];
+        this.epoch = 1;
+    }
+
+    /**
+     * @return the workspace of the calling thread reset for n nodes, or a new one if it is already in use,
+     * to give back with release()
+     */
+    public static TraversalWorkspace acquire(int n) {
+        TraversalWorkspace ws = POOL.get();
+        if (ws.lent) {
+            ws = new TraversalWorkspace(n);
+        }
+        ws.lent = true;
+        ws.owner = Thread.currentThread();
+        ws.reset(n);
+        return ws;
+    }
+
+    /**
+     * Gives the workspace back to the pool of the thread which acquired it, when that thread releases it
+     */
+    public void release() {
+        this.lent = false;
+        if (owner == Thread.currentThread() && POOL.get().lent) {
+            POOL.set(this);
+        }
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    /**
+     * @return the number of nodes the arrays can hold
+     */
+    public int getCapacity() {
+        return stamps.length;
+    }
+
+    /**
+     * @return an array of at least n cells to use as a queue or a stack of nodes
+     */
+    public int[] getQueue() {
+        return queue;
+    }
+
+    /**
+     * @return an array of at least n cells, for instance the next arc to scan of each node of a stack
+     */
+    public int[] getPositions() {
+        return positions;
+    }
+
+    public boolean isVisited(int x) {
+        return stamps[x] == epoch;
+    }
+
+    /**
+     * @return the distance given when x was visited, -1 if it is not visited
+     */
+    public int getDistance(int x) {
+        return stamps[x] == epoch ? distances[x] : -1;
+    }
+
+    /**
+     * @return the parent given when x was visited, -1 if it is not visited
+     */
+    public int getParent(int x) {
+        return stamps[x] == epoch ? parents[x] : -1;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * Clears the marks and makes room for n nodes
+     */
+    public void reset(int n) {
+        if (n > stamps.length) {
+            int capacity = Math.max(n, stamps.length + (stamps.length >> 1));
+            stamps = new int[capacity];
+            queue = new int[capacity];
+            positions = new int[capacity];
+            distances = new int[capacity];
+            parents = new int[capacity];
+            epoch = 1;
+        } else if (++epoch == 0) {
+            // the stamps went round, the old ones could be mistaken for the new epoch
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Makes room for capacity entries in the queue and in the positions, keeping their content, for the stacks
+     * which may hold a node several times. getQueue() and getPositions() must be called again afterwards.
+     */
+    public void ensureStackCapacity(int capacity) {
+        if (capacity > queue.length) {
+            int length = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, 2L * queue.length));
+            queue = Arrays.copyOf(queue, length);
+            positions = Arrays.copyOf(positions, length);
+        }
+    }
+
+    /**
+     * Marks x as visited
+     * @return false if it already was
+     */
+    public boolean visit(int x) {
+        if (stamps[x] == epoch) {
+            return false;
+        }
+        stamps[x] = epoch;
+        return true;
+    }
+
+    /**
+     * Marks x as visited with its parent and its distance
+     * @return false if it already was, its parent and distance being left as they were
+     */
+    public boolean visit(int x, int parent, int distance) {
+        if (stamps[x] == epoch) {
+            return false;
+        }
+        stamps[x] = epoch;
+        parents[x] = parent;
+        distances[x] = distance;
+        return true;
+    }
+}
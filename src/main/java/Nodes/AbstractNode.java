@@ -59,6 +59,15 @@ public abstract class AbstractNode {
 		return n instanceof AbstractNode && ((AbstractNode) n).getLabel() == this.getLabel();
 	}
 
+	/**
+	 * consistent with equals, so that a node built from a label finds its entry in a hashed map
+	 * @return the label of the node
+	 */
+	@Override
+	public int hashCode() {
+		return this.label;
+	}
+
 	public String toString() {
 		String s = "node-"+label;
 		if(weight>0) {
@@ -2,6 +2,7 @@ package Nodes;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.IntFunction;
 
 public class DirectedNode extends AbstractNode {
 
@@ -28,6 +29,16 @@ public class DirectedNode extends AbstractNode {
         this.preds = new LinkedHashMap<>();
     }
 
+    /**
+     * Creates a node whose successors and predecessors are stored by label in LabelMaps
+     * @param resolver gives the node of the graph having a given label
+     */
+    public DirectedNode(int i, IntFunction<DirectedNode> resolver) {
+        super(i);
+        this.succs = new LabelMap<>(resolver);
+        this.preds = new LabelMap<>(resolver);
+    }
+
     // ------------------------------------------
     // 				Accessors
     // ------------------------------------------
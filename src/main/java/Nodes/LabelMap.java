@@ -0,0 +1,153 @@
+package Nodes;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import Collection.IntIntLinkedMap;
+
+/**
+ * An adjacency map from nodes to costs which stores only the labels and the costs, in an IntIntLinkedMap.
+ * The nodes given back by the iterators are found by label through the resolver of the owning graph.
+ * It is iterated in insertion order like the LinkedHashMap it replaces.
+ */
+public class LabelMap<N extends AbstractNode> extends AbstractMap<N, Integer> {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final IntIntLinkedMap map;
+    private final IntFunction<N> resolver;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * @param resolver gives the node of the graph having a given label
+     */
+    public LabelMap(IntFunction<N> resolver) {
+        this.map = new IntIntLinkedMap();
+        this.resolver = resolver;
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    /**
+     * @return the underlying map from labels to costs
+     */
+    public IntIntLinkedMap getIntMap() {
+        return map;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof AbstractNode && map.containsKey(((AbstractNode) key).getLabel());
+    }
+
+    @Override
+    public Integer get(Object key) {
+        if (!(key instanceof AbstractNode)) {
+            return null;
+        }
+        int p = map.indexOf(((AbstractNode) key).getLabel());
+        return p >= 0 ? map.valueAt(p) : null;
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    @Override
+    public Integer put(N key, Integer value) {
+        int p = map.indexOf(key.getLabel());
+        if (p >= 0) {
+            int old = map.valueAt(p);
+            map.setValueAt(p, value);
+            return old;
+        }
+        map.put(key.getLabel(), value);
+        return null;
+    }
+
+    @Override
+    public Integer remove(Object key) {
+        Integer old = get(key);
+        if (old != null) {
+            map.remove(((AbstractNode) key).getLabel());
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<N, Integer>> entrySet() {
+        return new AbstractSet<Map.Entry<N, Integer>>() {
+            @Override
+            public Iterator<Map.Entry<N, Integer>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+        };
+    }
+
+    /**
+     * Walks the positions of the IntIntLinkedMap, removing leaves a hole so the cursor stays valid
+     */
+    private class EntryIterator implements Iterator<Map.Entry<N, Integer>> {
+
+        private int next = map.next(0);
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public Map.Entry<N, Integer> next() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = map.next(next + 1);
+            final int position = last;
+            return new AbstractMap.SimpleEntry<N, Integer>(resolver.apply(map.keyAt(position)), map.valueAt(position)) {
+                @Override
+                public Integer setValue(Integer value) {
+                    map.setValueAt(position, value);
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            map.remove(map.keyAt(last));
+            last = -1;
+        }
+    }
+}
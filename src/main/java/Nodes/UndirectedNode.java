@@ -2,6 +2,7 @@ package Nodes;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.IntFunction;
 
 /**
  * Created by gsimonin on 05/01/2020.
@@ -23,6 +24,15 @@ public class UndirectedNode extends AbstractNode {
         this.neighbours = new LinkedHashMap<>();
     }
 
+    /**
+     * Creates a node whose neighbours are stored by label in a LabelMap
+     * @param resolver gives the node of the graph having a given label
+     */
+    public UndirectedNode(int i, IntFunction<UndirectedNode> resolver) {
+        super(i);
+        this.neighbours = new LabelMap<>(resolver);
+    }
+
     // ------------------------------------------
     // 				Accessors
     // ------------------------------------------
@@ -0,0 +1,337 @@
+package Storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.IUndirectedGraph;
+import Abstraction.WeightedArcConsumer;
+import AdjacencyList.CsrDirectedGraph;
+import AdjacencyList.DirectedGraph;
+import GraphAlgorithms.GraphTools;
+import Nodes.DirectedNode;
+
+/**
+ * Binary file format of a graph, read back by mapping the file in memory.
+ * All values are little endian. The file starts with a header of 32 bytes:
+ * <pre>
+ *   int  magic     'GRPH'
+ *   int  version   1
+ *   int  flags     bit 0 directed, bit 1 valued
+ *   int  order     number of nodes n
+ *   long entries   length of each targets section
+ *   long count     number of arcs, or of edges for an undirected graph
+ * </pre>
+ * followed by a CSR: long offsets[n+1], int targets[entries] and, if valued, int weights[entries],
+ * every row sorted by label. An undirected graph stores each edge in the rows of both ends.
+ * A directed graph then stores the CSR of its predecessors in the same way.
+ * Each section starts on a multiple of 8 bytes.
+ */
+public class GraphFile {
+
+    public static final int MAGIC = 0x48505247;     // "GRPH" read as a little endian int
+    public static final int VERSION = 1;
+    public static final int DIRECTED = 1;
+    public static final int VALUED = 2;
+    private static final int HEADER_SIZE = 32;
+
+    private GraphFile() {
+
+    }
+
+    // ------------------------------------------
+    // 				Writing
+    // ------------------------------------------
+
+    /**
+     * Writes a list graph, the costs are kept if it is a DirectedValuedGraph
+     */
+    public static void write(DirectedGraph g, Path path) throws IOException {
+        write(new CsrDirectedGraph(g), path);
+    }
+
+    public static void write(CsrDirectedGraph g, Path path) throws IOException {
+        int n = g.getNbNodes();
+        int flags = DIRECTED | (g.isValued() ? VALUED : 0);
+        try (Output out = new Output(path)) {
+            out.header(flags, n, g.getNbArcs(), g.getNbArcs());
+            out.section(g.getOffsets(), g.getTargets(), g.getWeights());
+            out.section(g.getPredOffsets(), g.getSources(), g.getPredWeights());
+        }
+    }
+
+    /**
+     * Writes any other directed graph, whose rows are read through getOutDegree and forEachOutArc, then
+     * getInDegree and forEachInArc, so no implementation is converted first. The costs are kept if g is valued.
+     */
+    public static void write(IDirectedGraph g, Path path) throws IOException {
+        int n = g.getNbNodes();
+        long[] offsets = offsets(n, g::getOutDegree);
+        boolean valued = g.isValued();
+        try (Output out = new Output(path)) {
+            out.header(DIRECTED | (valued ? VALUED : 0), n, offsets[n], g.getNbArcs());
+            writeRows(out, offsets, valued, g::forEachOutArc);
+            long[] predOffsets = offsets(n, g::getInDegree);
+            if (predOffsets[n] != offsets[n]) {
+                throw new IllegalStateException(predOffsets[n] + " in-arcs for " + offsets[n] + " out-arcs");
+            }
+            writeRows(out, predOffsets, valued, g::forEachInArc);
+        }
+    }
+
+    /**
+     * Writes an undirected graph, whose rows are read through getDegree and forEachEdge, multiple edges
+     * being repeated, so no implementation is expanded to a matrix. The costs are kept if g is valued.
+     */
+    public static void write(IUndirectedGraph g, Path path) throws IOException {
+        int n = g.getNbNodes();
+        long[] offsets = offsets(n, g::getDegree);
+        boolean valued = g.isValued();
+        try (Output out = new Output(path)) {
+            out.header(valued ? VALUED : 0, n, offsets[n], g.getNbEdges());
+            writeRows(out, offsets, valued, g::forEachEdge);
+        }
+    }
+
+    /**
+     * The rows of a graph read through one of its forEach methods
+     */
+    private interface Rows {
+        void forEach(int x, WeightedArcConsumer action);
+    }
+
+    private static long[] offsets(int n, IntUnaryOperator degree) {
+        long[] offsets = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + degree.applyAsInt(i);
+        }
+        return offsets;
+    }
+
+    /**
+     * Writes the sections of one CSR, each row being sorted by label
+     */
+    private static void writeRows(Output out, long[] offsets, boolean valued, Rows rows) throws IOException {
+        int n = offsets.length - 1;
+        for (long o : offsets) {
+            out.putLong(o);
+        }
+        out.align();
+        // rows are written once for the targets, then once more for the weights
+        RowReader row = new RowReader();
+        for (int pass = 0; pass < (valued ? 2 : 1); pass++) {
+            for (int i = 0; i < n; i++) {
+                row.size = 0;
+                rows.forEach(i, row);
+                Arrays.sort(row.entries, 0, row.size);
+                for (int k = 0; k < row.size; k++) {
+                    long entry = row.entries[k];
+                    out.putInt(pass == 0 ? (int) (entry >> 32) : (int) entry);
+                }
+            }
+            out.align();
+        }
+    }
+
+    /**
+     * Collects a row as (label << 32 | cost) entries, to be sorted by label
+     */
+    private static final class RowReader implements WeightedArcConsumer {
+
+        private long[] entries = new long[16];
+        private int size;
+
+        @Override
+        public void accept(int node, int weight) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = ((long) node << 32) | (weight & 0xFFFFFFFFL);
+        }
+    }
+
+    // ------------------------------------------
+    // 				Loading
+    // ------------------------------------------
+
+    /**
+     * Maps a file written from a directed graph
+     */
+    public static MappedDirectedGraph mapDirected(Path path) throws IOException {
+        MappedFile file = new MappedFile(path);
+        int flags = checkHeader(file);
+        if ((flags & DIRECTED) == 0) {
+            throw new IllegalArgumentException(path + " holds an undirected graph");
+        }
+        int n = file.getInt(12);
+        long entries = file.getLong(16);
+        boolean valued = (flags & VALUED) != 0;
+        long pos = HEADER_SIZE;
+        MappedAdjacency succs = adjacency(file, pos, n, entries, valued);
+        pos = sectionEnd(pos, n, entries, valued);
+        MappedAdjacency preds = adjacency(file, pos, n, entries, valued);
+        return new MappedDirectedGraph(n, (int) file.getLong(24), succs, preds);
+    }
+
+    /**
+     * Maps a file written from an undirected graph
+     */
+    public static MappedUndirectedGraph mapUndirected(Path path) throws IOException {
+        MappedFile file = new MappedFile(path);
+        int flags = checkHeader(file);
+        if ((flags & DIRECTED) != 0) {
+            throw new IllegalArgumentException(path + " holds a directed graph");
+        }
+        int n = file.getInt(12);
+        long entries = file.getLong(16);
+        MappedAdjacency neighbours = adjacency(file, HEADER_SIZE, n, entries, (flags & VALUED) != 0);
+        return new MappedUndirectedGraph(n, (int) file.getLong(24), neighbours);
+    }
+
+    private static int checkHeader(MappedFile file) throws IOException {
+        if (file.size() < HEADER_SIZE || file.getInt(0) != MAGIC) {
+            throw new IOException("not a graph file");
+        }
+        if (file.getInt(4) != VERSION) {
+            throw new IOException("unsupported graph file version " + file.getInt(4));
+        }
+        int n = file.getInt(12);
+        long entries = file.getLong(16);
+        long count = file.getLong(24);
+        if (n < 0 || entries < 0 || entries > file.size() || count < 0 || count > Integer.MAX_VALUE) {
+            throw new IOException("corrupt graph file: " + n + " nodes, " + entries + " entries, count " + count);
+        }
+        return file.getInt(8);
+    }
+
+    /**
+     * Checks that the CSR at pos lies in the file and that its offsets end at entries
+     */
+    private static MappedAdjacency adjacency(MappedFile file, long pos, int n, long entries, boolean valued)
+            throws IOException {
+        long end = sectionEnd(pos, n, entries, valued);
+        if (file.size() < end) {
+            throw new IOException("truncated graph file: " + file.size() + " bytes, " + end + " expected");
+        }
+        if (file.getLong(pos) != 0 || file.getLong(pos + 8L * n) != entries) {
+            throw new IOException("corrupt graph file: the offsets at " + pos + " do not cover " + entries
+                    + " entries");
+        }
+        long targetsPos = align(pos + 8L * (n + 1));
+        long weightsPos = valued ? align(targetsPos + 4L * entries) : -1;
+        return new MappedAdjacency(file, pos, targetsPos, weightsPos);
+    }
+
+    private static long sectionEnd(long pos, int n, long entries, boolean valued) {
+        long end = align(align(pos + 8L * (n + 1)) + 4L * entries);
+        return valued ? align(end + 4L * entries) : end;
+    }
+
+    private static long align(long pos) {
+        return (pos + 7) & ~7L;
+    }
+
+    /**
+     * A buffered little endian writer on a file channel
+     */
+    private static class Output implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        Output(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void header(int flags, int order, long entries, long count) throws IOException {
+            putInt(MAGIC);
+            putInt(VERSION);
+            putInt(flags);
+            putInt(order);
+            putLong(entries);
+            putLong(count);
+        }
+
+        /**
+         * Writes the sections of one CSR, weights may be null
+         */
+        void section(int[] offsets, int[] targets, int[] weights) throws IOException {
+            for (int o : offsets) {
+                putLong(o);
+            }
+            align();
+            for (int t : targets) {
+                putInt(t);
+            }
+            align();
+            if (weights != null) {
+                for (int w : weights) {
+                    putInt(w);
+                }
+                align();
+            }
+        }
+
+        void putInt(int v) throws IOException {
+            if (buffer.remaining() < 4) {
+                flush();
+            }
+            buffer.putInt(v);
+            position += 4;
+        }
+
+        void putLong(long v) throws IOException {
+            if (buffer.remaining() < 8) {
+                flush();
+            }
+            buffer.putLong(v);
+            position += 8;
+        }
+
+        void align() throws IOException {
+            while ((position & 7) != 0) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[][] matrix = GraphTools.generateGraphData(10, 20, false, false, false, 100001);
+        Path path = Paths.get(System.getProperty("java.io.tmpdir"), "graph.bin");
+        write(new DirectedGraph(matrix), path);
+        IDirectedGraph g = mapDirected(path);
+        System.out.println(g.getNbNodes() + " nodes, " + g.getNbArcs() + " arcs");
+        System.out.println(((MappedDirectedGraph) g).getSuccessors(new DirectedNode(1)));
+        GraphTools.afficherMatrix(g.toAdjacencyMatrix());
+    }
+}
@@ -0,0 +1,122 @@
+package Storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import Abstraction.WeightedArcConsumer;
+
+/**
+ * One adjacency structure (successors, predecessors or neighbours) of a graph file, read in place:
+ * the row of node i is entries start(i) .. end(i)-1 of the targets section, sorted by label.
+ */
+class MappedAdjacency {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final MappedFile file;
+    private final long offsetsPos;
+    private final long targetsPos;
+    private final long weightsPos;     // -1 if the graph is not valued
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    MappedAdjacency(MappedFile file, long offsetsPos, long targetsPos, long weightsPos) {
+        this.file = file;
+        this.offsetsPos = offsetsPos;
+        this.targetsPos = targetsPos;
+        this.weightsPos = weightsPos;
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    boolean isValued() {
+        return weightsPos >= 0;
+    }
+
+    long start(int i) {
+        return file.getLong(offsetsPos + 8L * i);
+    }
+
+    long end(int i) {
+        return file.getLong(offsetsPos + 8L * (i + 1));
+    }
+
+    int degree(int i) {
+        return (int) (end(i) - start(i));
+    }
+
+    int target(long k) {
+        return file.getInt(targetsPos + 4L * k);
+    }
+
+    /**
+     * @return the weight of entry k, 1 if the adjacency is not valued
+     */
+    int weight(long k) {
+        return weightsPos < 0 ? 1 : file.getInt(weightsPos + 4L * k);
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    /**
+     * @return the index of an entry j in the row of i, or -1 if there is none
+     */
+    long find(int i, int j) {
+        long lo = start(i);
+        long hi = end(i) - 1;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            int t = target(mid);
+            if (t < j) {
+                lo = mid + 1;
+            } else if (t > j) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    void forEach(int i, IntConsumer action) {
+        for (long k = start(i); k < end(i); k++) {
+            action.accept(target(k));
+        }
+    }
+
+    /**
+     * Calls action on each entry of the row of i with its weight, 1 if the adjacency is not valued
+     */
+    void forEach(int i, WeightedArcConsumer action) {
+        for (long k = start(i); k < end(i); k++) {
+            action.accept(target(k), weight(k));
+        }
+    }
+
+    List<Integer> row(int i) {
+        List<Integer> l = new ArrayList<>(degree(i));
+        for (long k = start(i); k < end(i); k++) {
+            l.add(target(k));
+        }
+        return l;
+    }
+
+    int[][] toAdjacencyMatrix(int order) {
+        int[][] matrix = new int[order][order];
+        for (int i = 0; i < order; i++) {
+            for (long k = start(i); k < end(i); k++) {
+                matrix[i][target(k)]++;
+            }
+        }
+        return matrix;
+    }
+}
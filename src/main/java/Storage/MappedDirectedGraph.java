@@ -0,0 +1,154 @@
+package Storage;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import Abstraction.IDirectedGraph;
+import Abstraction.WeightedArcConsumer;
+import Nodes.DirectedNode;
+
+/**
+ * A read-only directed graph reading its successors and predecessors directly from a mapped graph file.
+ * Nothing is copied on the heap, see GraphFile.
+ */
+public class MappedDirectedGraph implements IDirectedGraph {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int order;
+    private final int m;
+    private final MappedAdjacency succs;
+    private final MappedAdjacency preds;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    MappedDirectedGraph(int order, int m, MappedAdjacency succs, MappedAdjacency preds) {
+        this.order = order;
+        this.m = m;
+        this.succs = succs;
+        this.preds = preds;
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    @Override
+    public int getNbNodes() {
+        return order;
+    }
+
+    @Override
+    public int getNbArcs() {
+        return m;
+    }
+
+    @Override
+    public boolean isValued() {
+        return succs.isValued();
+    }
+
+    @Override
+    public int getOutDegree(int x) {
+        return succs.degree(x);
+    }
+
+    @Override
+    public int getInDegree(int x) {
+        return preds.degree(x);
+    }
+
+    @Override
+    public void forEachSuccessor(int x, IntConsumer action) {
+        succs.forEach(x, action);
+    }
+
+    @Override
+    public void forEachPredecessor(int x, IntConsumer action) {
+        preds.forEach(x, action);
+    }
+
+    @Override
+    public void forEachOutArc(int x, WeightedArcConsumer action) {
+        succs.forEach(x, action);
+    }
+
+    @Override
+    public void forEachInArc(int x, WeightedArcConsumer action) {
+        preds.forEach(x, action);
+    }
+
+    public List<Integer> getSuccessors(DirectedNode x) {
+        return succs.row(x.getLabel());
+    }
+
+    public List<Integer> getPredecessors(DirectedNode x) {
+        return preds.row(x.getLabel());
+    }
+
+    /**
+     * @return the cost of the arc (from,to), 1 if the graph is not valued, the arc must exist
+     */
+    public int getCost(DirectedNode from, DirectedNode to) {
+        long k = succs.find(from.getLabel(), to.getLabel());
+        if (k < 0) {
+            throw new IllegalArgumentException("no arc (" + from + "," + to + ")");
+        }
+        return succs.weight(k);
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    @Override
+    public boolean isArc(DirectedNode from, DirectedNode to) {
+        return succs.find(from.getLabel(), to.getLabel()) >= 0;
+    }
+
+    @Override
+    public boolean isArc(int from, int to) {
+        return succs.find(from, to) >= 0;
+    }
+
+    /**
+     * Not supported, a mapped graph is read-only
+     */
+    @Override
+    public void removeArc(DirectedNode from, DirectedNode to) {
+        throw new UnsupportedOperationException("MappedDirectedGraph is read-only");
+    }
+
+    /**
+     * Not supported, a mapped graph is read-only
+     */
+    @Override
+    public void addArc(DirectedNode from, DirectedNode to) {
+        throw new UnsupportedOperationException("MappedDirectedGraph is read-only");
+    }
+
+    @Override
+    public int[][] toAdjacencyMatrix() {
+        return succs.toAdjacencyMatrix(order);
+    }
+
+    /**
+     * @return the inverse graph, reading the same file with successors and predecessors swapped
+     */
+    @Override
+    public IDirectedGraph computeInverse() {
+        return new MappedDirectedGraph(order, m, preds, succs);
+    }
+
+    /**
+     * @return the inverse graph, which already reads the same file
+     */
+    @Override
+    public IDirectedGraph transposedView() {
+        return this.computeInverse();
+    }
+}
@@ -0,0 +1,118 @@
+package Storage;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import Abstraction.IUndirectedGraph;
+import Abstraction.WeightedArcConsumer;
+import Nodes.AbstractNode;
+import Nodes.UndirectedNode;
+
+/**
+ * A read-only undirected graph reading its neighbours directly from a mapped graph file.
+ * Nothing is copied on the heap, see GraphFile.
+ */
+public class MappedUndirectedGraph implements IUndirectedGraph {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int order;
+    private final int m;
+    private final MappedAdjacency neighbours;
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    MappedUndirectedGraph(int order, int m, MappedAdjacency neighbours) {
+        this.order = order;
+        this.m = m;
+        this.neighbours = neighbours;
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    @Override
+    public int getNbNodes() {
+        return order;
+    }
+
+    @Override
+    public int getNbEdges() {
+        return m;
+    }
+
+    @Override
+    public boolean isValued() {
+        return neighbours.isValued();
+    }
+
+    @Override
+    public int getDegree(int x) {
+        return neighbours.degree(x);
+    }
+
+    @Override
+    public void forEachNeighbour(int x, IntConsumer action) {
+        neighbours.forEach(x, action);
+    }
+
+    @Override
+    public void forEachEdge(int x, WeightedArcConsumer action) {
+        neighbours.forEach(x, action);
+    }
+
+    public List<Integer> getNeighbours(AbstractNode x) {
+        return neighbours.row(x.getLabel());
+    }
+
+    /**
+     * @return the cost of the edge (x,y), 1 if the graph is not valued, the edge must exist
+     */
+    public int getCost(UndirectedNode x, UndirectedNode y) {
+        long k = neighbours.find(x.getLabel(), y.getLabel());
+        if (k < 0) {
+            throw new IllegalArgumentException("no edge (" + x + "," + y + ")");
+        }
+        return neighbours.weight(k);
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    @Override
+    public boolean isEdge(UndirectedNode x, UndirectedNode y) {
+        return neighbours.find(x.getLabel(), y.getLabel()) >= 0;
+    }
+
+    @Override
+    public boolean isEdge(int x, int y) {
+        return neighbours.find(x, y) >= 0;
+    }
+
+    /**
+     * Not supported, a mapped graph is read-only
+     */
+    @Override
+    public void removeEdge(UndirectedNode x, UndirectedNode y) {
+        throw new UnsupportedOperationException("MappedUndirectedGraph is read-only");
+    }
+
+    /**
+     * Not supported, a mapped graph is read-only
+     */
+    @Override
+    public void addEdge(UndirectedNode x, UndirectedNode y) {
+        throw new UnsupportedOperationException("MappedUndirectedGraph is read-only");
+    }
+
+    @Override
+    public int[][] toAdjacencyMatrix() {
+        return neighbours.toAdjacencyMatrix(order);
+    }
+}
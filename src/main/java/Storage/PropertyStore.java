@@ -0,0 +1,326 @@
+package Storage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import AdjacencyList.CsrDirectedGraph;
+import AdjacencyList.DirectedValuedGraph;
+import GraphAlgorithms.GraphTools;
+import Nodes.AbstractNode;
+
+/**
+ * A set of named primitive columns holding the properties of the nodes and of the edges of a graph,
+ * apart from its topology. A node column is indexed by label, an edge column by the index of the edge,
+ * which for a CsrDirectedGraph is the position of the arc in getTargets(). Algorithms then read a weight
+ * as column.get(k) while scanning a row, and several weights (cost, latency, ...) share one topology:
+ * Dijkstra and DeltaStepping take a CSR and an IntColumn of costs.
+ */
+public class PropertyStore {
+
+    //--------------------------------------------------
+    // 				Class variables
+    //--------------------------------------------------
+
+    private final int nbNodes;
+    private final int nbEdges;
+    private final CsrDirectedGraph graph;       // graph giving the edge indices, null if not attached
+    private final Map<String, Column> nodeColumns = new LinkedHashMap<>();
+    private final Map<String, Column> edgeColumns = new LinkedHashMap<>();
+
+    //--------------------------------------------------
+    // 				Constructors
+    //--------------------------------------------------
+
+    /**
+     * A store for any graph whose edges are indexed in [0, nbEdges) by the caller
+     */
+    public PropertyStore(int nbNodes, int nbEdges) {
+        if (nbNodes < 0 || nbEdges < 0) {
+            throw new IllegalArgumentException("sizes must be positive");
+        }
+        this.nbNodes = nbNodes;
+        this.nbEdges = nbEdges;
+        this.graph = null;
+    }
+
+    /**
+     * A store attached to a CSR, its edge columns are indexed like getTargets()
+     */
+    public PropertyStore(CsrDirectedGraph graph) {
+        this.nbNodes = graph.getNbNodes();
+        this.nbEdges = graph.getNbArcs();
+        this.graph = graph;
+    }
+
+    // ------------------------------------------
+    // 				Accessors
+    // ------------------------------------------
+
+    public int getNbNodes() {
+        return nbNodes;
+    }
+
+    public int getNbEdges() {
+        return nbEdges;
+    }
+
+    public List<String> getNodeColumnNames() {
+        return new ArrayList<>(nodeColumns.keySet());
+    }
+
+    public List<String> getEdgeColumnNames() {
+        return new ArrayList<>(edgeColumns.keySet());
+    }
+
+    /**
+     * @return the node column name of the given type, or null if there is none
+     */
+    public <C extends Column> C getNodeColumn(String name, Class<C> type) {
+        return cast(nodeColumns.get(name), name, type);
+    }
+
+    /**
+     * @return the edge column name of the given type, or null if there is none
+     */
+    public <C extends Column> C getEdgeColumn(String name, Class<C> type) {
+        return cast(edgeColumns.get(name), name, type);
+    }
+
+    private static <C extends Column> C cast(Column c, String name, Class<C> type) {
+        if (c != null && !type.isInstance(c)) {
+            throw new IllegalArgumentException("column " + name + " is a " + c.getClass().getSimpleName());
+        }
+        return type.cast(c);
+    }
+
+    /**
+     * @return the index of the arc (from,to) in the edge columns, or -1 if there is none
+     */
+    public int edgeIndex(int from, int to) {
+        if (graph == null) {
+            throw new IllegalStateException("the store is not attached to a CsrDirectedGraph");
+        }
+        return graph.arcIndex(from, to);
+    }
+
+    // ------------------------------------------
+    // 				Methods
+    // ------------------------------------------
+
+    public IntColumn addIntNodeColumn(String name) {
+        return addColumn(nodeColumns, name, new IntColumn(new int[nbNodes]));
+    }
+
+    public LongColumn addLongNodeColumn(String name) {
+        return addColumn(nodeColumns, name, new LongColumn(new long[nbNodes]));
+    }
+
+    public FloatColumn addFloatNodeColumn(String name) {
+        return addColumn(nodeColumns, name, new FloatColumn(new float[nbNodes]));
+    }
+
+    public DoubleColumn addDoubleNodeColumn(String name) {
+        return addColumn(nodeColumns, name, new DoubleColumn(new double[nbNodes]));
+    }
+
+    public IntColumn addIntEdgeColumn(String name) {
+        return addColumn(edgeColumns, name, new IntColumn(new int[nbEdges]));
+    }
+
+    public LongColumn addLongEdgeColumn(String name) {
+        return addColumn(edgeColumns, name, new LongColumn(new long[nbEdges]));
+    }
+
+    public FloatColumn addFloatEdgeColumn(String name) {
+        return addColumn(edgeColumns, name, new FloatColumn(new float[nbEdges]));
+    }
+
+    public DoubleColumn addDoubleEdgeColumn(String name) {
+        return addColumn(edgeColumns, name, new DoubleColumn(new double[nbEdges]));
+    }
+
+    private static <C extends Column> C addColumn(Map<String, Column> columns, String name, C column) {
+        if (columns.containsKey(name)) {
+            throw new IllegalArgumentException("column " + name + " already exists");
+        }
+        columns.put(name, column);
+        return column;
+    }
+
+    public void removeNodeColumn(String name) {
+        nodeColumns.remove(name);
+    }
+
+    public void removeEdgeColumn(String name) {
+        edgeColumns.remove(name);
+    }
+
+    /**
+     * Copies the costs of the attached CSR in a new edge column
+     */
+    public IntColumn importCosts(String name) {
+        if (graph == null || !graph.isValued()) {
+            throw new IllegalStateException("the store is not attached to a valued CsrDirectedGraph");
+        }
+        IntColumn c = addIntEdgeColumn(name);
+        System.arraycopy(graph.getWeights(), 0, c.values, 0, nbEdges);
+        return c;
+    }
+
+    /**
+     * Copies the weights of nodes, indexed by label, in a new node column
+     */
+    public IntColumn importNodeWeights(String name, List<? extends AbstractNode> nodes) {
+        IntColumn c = addIntNodeColumn(name);
+        for (AbstractNode n : nodes) {
+            c.values[n.getLabel()] = n.getWeight();
+        }
+        return c;
+    }
+
+    /**
+     * A column of fixed size, backed by a primitive array
+     */
+    public abstract static class Column {
+
+        public abstract int size();
+    }
+
+    public static final class IntColumn extends Column {
+
+        private final int[] values;
+
+        IntColumn(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        public int get(int k) {
+            return values[k];
+        }
+
+        public void set(int k, int v) {
+            values[k] = v;
+        }
+
+        /**
+         * @return the backing array, not a copy
+         */
+        public int[] getArray() {
+            return values;
+        }
+    }
+
+    public static final class LongColumn extends Column {
+
+        private final long[] values;
+
+        LongColumn(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        public long get(int k) {
+            return values[k];
+        }
+
+        public void set(int k, long v) {
+            values[k] = v;
+        }
+
+        /**
+         * @return the backing array, not a copy
+         */
+        public long[] getArray() {
+            return values;
+        }
+    }
+
+    public static final class FloatColumn extends Column {
+
+        private final float[] values;
+
+        FloatColumn(float[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        public float get(int k) {
+            return values[k];
+        }
+
+        public void set(int k, float v) {
+            values[k] = v;
+        }
+
+        /**
+         * @return the backing array, not a copy
+         */
+        public float[] getArray() {
+            return values;
+        }
+    }
+
+    public static final class DoubleColumn extends Column {
+
+        private final double[] values;
+
+        DoubleColumn(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        public double get(int k) {
+            return values[k];
+        }
+
+        public void set(int k, double v) {
+            values[k] = v;
+        }
+
+        /**
+         * @return the backing array, not a copy
+         */
+        public double[] getArray() {
+            return values;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[][] matrixValued = GraphTools.generateValuedGraphData(10, false, false, true, false, 100001);
+        DirectedValuedGraph al = new DirectedValuedGraph(matrixValued);
+        CsrDirectedGraph csr = new CsrDirectedGraph(al);
+        PropertyStore store = new PropertyStore(csr);
+        IntColumn cost = store.importCosts("cost");
+        FloatColumn latency = store.addFloatEdgeColumn("latency");
+        for (int k = 0; k < store.getNbEdges(); k++) {
+            latency.set(k, cost.get(k) * 0.5f);
+        }
+        store.importNodeWeights("weight", al.getNodes());
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        for (int k = offsets[0]; k < offsets[1]; k++) {
+            System.out.println("(0," + targets[k] + ") cost " + cost.get(k) + " latency " + latency.get(k));
+        }
+        System.out.println(store.getEdgeColumnNames() + " " + store.getNodeColumnNames());
+    }
+}
@@ -1,162 +1,111 @@
 package TP2;
 
-import Abstraction.AbstractListGraph;
-import Abstraction.AbstractMatrixGraph;
 import Abstraction.IDirectedGraph;
 import AdjacencyList.DirectedGraph;
 import AdjacencyMatrix.AdjacencyMatrixDirectedGraph;
 import GraphAlgorithms.GraphTools;
-import Nodes.AbstractNode;
-import Nodes.DirectedNode;
+import GraphAlgorithms.StronglyConnectedComponents;
+import GraphAlgorithms.TraversalWorkspace;
 import org.javatuples.Pair;
 
 import java.util.*;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 public abstract class Tp2 {
 
     /**
-     * Parcours en largeur d'un graphe, implémentation impérative
+     * Parcours en largeur d'un graphe, implémentation impérative. La file et les marques viennent de l'espace
+     * de travail du thread (voir TraversalWorkspace) : pas d'allocation par sommet visité.
      * @param graph Le graphe
      * @param start Le sommet d'où commencer
      * @return Les sommets atteints, dans l'odre où ils ont été atteints
      */
     public static List<Integer> parcoursEnLargeur(IDirectedGraph graph, int start) {
         int order = graph.getNbNodes();
-        List<Integer> parcours = new LinkedList<>();
-        List<Boolean> mark = initMark(order, start);
-        Queue<Integer> toVisit = new LinkedList<>();
-        toVisit.add(start);
-
-        while(!toVisit.isEmpty()) {
-            int sommet = toVisit.remove();
-            parcours.add(sommet);
-            for(int successeur : successeurs(sommet, graph)) {
-                if(!mark.get(successeur)) {
-                    mark.set(successeur, true);
-                    toVisit.add(successeur);
-                }
+        List<Integer> parcours = new ArrayList<>();
+        TraversalWorkspace ws = TraversalWorkspace.acquire(order);
+        try {
+            Empileur file = new Empileur(ws);
+            int tete = 0;
+            file.accept(start);
+
+            while(tete < file.fin) {
+                int sommet = file.toVisit[tete++];
+                parcours.add(sommet);
+                graph.forEachSuccessor(sommet, file);
             }
+        } finally {
+            ws.release();
         }
-
         return parcours;
     }
 
     /**
-     * Parcours en profondeur prefix d'un graphe, implémentation impérative
+     * Parcours en profondeur prefix d'un graphe, implémentation impérative. La pile et les marques viennent de
+     * l'espace de travail du thread (voir TraversalWorkspace).
      * @param graph Le graphe
      * @param start Le sommet d'où commencer
      * @return Les sommets atteints, dans l'odre où ils ont été atteints
      */
     public static List<Integer> parcoursEnProfondeur(IDirectedGraph graph, int start){
         int order = graph.getNbNodes();
-        List<Integer> parcours = new LinkedList<>();
-        List<Boolean> mark = initMark(order, start);
-        Deque<Integer> toVisit = new LinkedList<>();
-        toVisit.push(start);
-
-        while(!toVisit.isEmpty()) {
-            int sommet = toVisit.pop();
-            parcours.add(sommet);
-            for(int successeur: successeurs(sommet, graph)){
-                if(!mark.get(successeur)) {
-                    mark.set(successeur, true);
-                    toVisit.push(successeur);
-                }
+        List<Integer> parcours = new ArrayList<>();
+        TraversalWorkspace ws = TraversalWorkspace.acquire(order);
+        try {
+            Empileur pile = new Empileur(ws);
+            pile.accept(start);
+
+            while(pile.fin > 0) {
+                int sommet = pile.toVisit[--pile.fin];
+                parcours.add(sommet);
+                graph.forEachSuccessor(sommet, pile);
             }
+        } finally {
+            ws.release();
         }
         return parcours;
     }
 
     /**
-     * Retourne les successeurs d'un sommet d'un graphe orienté
-     * @param sommet Le sommet dont on récupère les successeurs
-     * @param graphe Le graphe auquel appartient le sommet
-     * @return Un ensemble représentant les successeur du sommet
+     * Ajoute à la fin de la file ou de la pile d'un parcours les successeurs pas encore marqués, en les marquant.
+     * Un seul objet sert à tout le parcours, passé à IDirectedGraph.forEachSuccessor pour chaque sommet.
      */
-    private static Set<Integer> successeurs(int sommet, IDirectedGraph graphe){
-        DirectedNode node = new DirectedNode(sommet);
-        if(graphe instanceof AbstractListGraph) {
-            DirectedGraph listGraphe = (DirectedGraph) graphe;
-
-            return listGraphe.getNodeOfList(node).getSuccs().keySet()
-                    .stream()
-                    .map(AbstractNode::getLabel)
-                    .collect(Collectors.toSet());
-        }
-        else if(graphe instanceof AbstractMatrixGraph) {
-            AdjacencyMatrixDirectedGraph matrixGraph = (AdjacencyMatrixDirectedGraph) graphe;
-            Set<Integer> successeurs = new HashSet<>();
-            for(int i=0; i<graphe.getNbNodes(); i++){
-                if(graphe.isArc(node, new DirectedNode(i))) {
-                    successeurs.add(i);
-                }
-            }
-            return successeurs;
-        }
-        throw new RuntimeException(String.format("No implementation for %s", graphe.getClass()));
-    }
+    private static final class Empileur implements IntConsumer {
+
+        private final TraversalWorkspace ws;   // Les marques du parcours
+        private final int[] toVisit;           // La file ou la pile des sommets à visiter
+        private int fin;                       // La taille de toVisit
 
-    private static List<Boolean> initMark(int order, int start){
-        ArrayList<Boolean> mark = new ArrayList<>(order);
-        for(int i=0; i<order; i++) {
-            mark.add(false);
+        Empileur(TraversalWorkspace ws) {
+            this.ws = ws;
+            this.toVisit = ws.getQueue();
         }
-        mark.set(start, true);
-        return mark;
-    }
 
-    /**
-     * Parcours en profondeur sufixe avec une implémentation récursive. Produit des effets de bords.
-     * @param sommet Le sommet de départ du parcours
-     * @param atteints La liste des sommets déjà atteints, mise à jour via un effet de bord
-     * @param parcours L'ordre de parcours des sommets, mis à jour avec un effet de bord.
-     * @param graphe Un graphe orienté quelconque. Pas d'effet de bord
-     */
-    private static void explorerSommet(int sommet, Set<Integer> atteints,
-                                       Deque<Integer> parcours, final IDirectedGraph graphe) {
-        atteints.add(sommet);
-        for(int successeur : successeurs(sommet, graphe)) {
-            if(!atteints.contains(successeur)) {
-                explorerSommet(successeur, atteints, parcours, graphe);
+        @Override
+        public void accept(int successeur) {
+            if(ws.visit(successeur)) {
+                toVisit[fin++] = successeur;
             }
         }
-        parcours.addLast(sommet);
     }
 
     /**
-     * Calcule les composantes fortement connexes d'un graphe orienté
+     * Calcule les composantes fortement connexes d'un graphe orienté, par l'algorithme de Tarjan itératif
+     * (voir StronglyConnectedComponents) qui lit les successeurs du graphe sans le copier : pas de récursion
+     * ni de graphe transposé
      * @param graphe Un graphe orienté quelconque
      * @return Une collection d'ensembles représentant les composantes fortement connexes
      */
     public static Collection<Set<Integer>> composantesFortementConexes(IDirectedGraph graphe) {
-        Set<Integer> atteints = new HashSet<>();
-        Deque<Integer> parcours = new LinkedList<>();
-        int ordre = graphe.getNbNodes();
-
-        for(int sommet=0; sommet<ordre; sommet++) {
-            if(!atteints.contains(sommet)){
-                explorerSommet(sommet, atteints, parcours, graphe);
-            }
-            if (atteints.size() >= ordre) break;
-        }
-
-        IDirectedGraph graphTranspose = graphe.computeInverse();
-        Set<Integer> atteints2 = new HashSet<>();
         Collection<Set<Integer>> cfc = new LinkedList<>();
-        while(!parcours.isEmpty()){
-            int sommet = parcours.removeLast();
-
-            if(!atteints2.contains(sommet)){
-                LinkedList<Integer> parcours2 = new LinkedList<>();
-                explorerSommet(sommet, atteints2, parcours2, graphTranspose);
-                cfc.add(new HashSet<>(parcours2));
+        for(int[] composante : StronglyConnectedComponents.groups(StronglyConnectedComponents.tarjan(graphe))) {
+            Set<Integer> sommets = new HashSet<>();
+            for(int sommet : composante) {
+                sommets.add(sommet);
             }
-            if (atteints2.size() >= ordre) break;
+            cfc.add(sommets);
         }
-
-
         return cfc;
     }
 